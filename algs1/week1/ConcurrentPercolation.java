@@ -0,0 +1,228 @@
+/*----------------------------------------------------------------
+ *  Author:        Jyun-Sheng Kao
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Compilation:   javac-coursera ConcurrentPercolation.java
+ *  Execution:     java-coursera ConcurrentPercolation n threads
+ *  Dependencies:  StdOut.java
+ *
+ *  Percolation whose sites may be opened from many threads at once.
+ *  Connectivity is a lock-free union-find: find splits paths with
+ *  compare-and-set and never waits, union links one root under the
+ *  other with a single compare-and-set. The TOP/BOTTOM flags of the
+ *  absorbed root are then or-ed into the surviving root, chasing it
+ *  further up if it was linked meanwhile.
+ *
+ *----------------------------------------------------------------*/
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import edu.princeton.cs.algs4.StdOut;
+
+public class ConcurrentPercolation {
+    private static final int OPEN = 1;      // site is open
+    private static final int TOP = 2;       // component touches top row
+    private static final int BOTTOM = 4;    // component touches bottom row
+    private static final int SPAN = TOP | BOTTOM;
+
+    private final int n;
+    private final AtomicIntegerArray parent;    // parent link, itself for a root
+    private final AtomicIntegerArray status;    // flags per site, TOP/BOTTOM gathered at roots
+    private final LongAdder numOfOpenSites;
+    private volatile boolean isPercolates;      // only ever goes from false to true
+
+    /**
+     * Initializes n-by-n grid, with all sites blocked.
+     *
+     * @param  n the length of grid
+     * @throws IllegalArgumentException if {@code n <= 0}
+     */
+    public ConcurrentPercolation(int n) {
+        if (n <= 0)
+            throw new IllegalArgumentException("row/col index out of bounds");
+        this.n = n;
+        parent = new AtomicIntegerArray(n * n);
+        for (int i = 0; i < n * n; ++i)
+            parent.lazySet(i, i);
+        status = new AtomicIntegerArray(n * n);
+        numOfOpenSites = new LongAdder();
+        isPercolates = false;
+    }
+
+    /**
+     * Open a site with given row and col if the site is blocked.
+     * Then, update connectivity of its open neighbors in four directions.
+     * Safe to call from any number of threads; when several threads open
+     * the same site, exactly one of them does the work.
+     *
+     * @param row the row index of site
+     * @param col the column index of site
+     * @throws IllegalArgumentException unless
+     *         both {@code 1 <= row <= n} and {@code 1 <= col <= n}
+     */
+    public void open(int row, int col) {
+        if (outBound(row) || outBound(col))
+            throw new IllegalArgumentException("row/col index out of bounds");
+        int site = xyTo1D(row, col);
+        int flags = OPEN;
+        if (row == 1)   flags |= TOP;
+        if (row == n)   flags |= BOTTOM;
+        // blocked sites are never linked, so their status is still 0
+        if (!status.compareAndSet(site, 0, flags))
+            return;
+
+        numOfOpenSites.increment();
+        if ((flags & SPAN) == SPAN)
+            isPercolates = true;
+
+        // the site is marked open before looking at its neighbors, so of
+        // two neighbors opened at once at least one sees the other
+        if (row > 1)    connect(site, site - n);
+        if (row < n)    connect(site, site + n);
+        if (col > 1)    connect(site, site - 1);
+        if (col < n)    connect(site, site + 1);
+    }
+
+    /**
+     * Identify site (row, col) is open
+     *
+     * @param  row the row index of site
+     * @param  col the column index of site
+     * @return if the site is open or not
+     * @throws IllegalArgumentException unless
+     *         both {@code 1 <= row <= n} and {@code 1 <= col <= n}
+     */
+    public boolean isOpen(int row, int col) {
+        if (outBound(row) || outBound(col))
+            throw new IllegalArgumentException("row/col index out of bounds");
+        return (status.get(xyTo1D(row, col)) & OPEN) != 0;
+    }
+
+    /**
+     * Identify site (row, col) is full. While other threads are opening
+     * sites the answer may lag behind their unions; once they are done
+     * it is exact.
+     *
+     * @param row the row index of site
+     * @param col the column index of site
+     * @return if the site is full or not
+     * @throws IllegalArgumentException unless
+     *         both {@code 1 <= row <= n} and {@code 1 <= col <= n}
+     */
+    public boolean isFull(int row, int col) {
+        if (outBound(row) || outBound(col))
+            throw new IllegalArgumentException("row/col index out of bounds");
+        return (status.get(find(xyTo1D(row, col))) & TOP) != 0;
+    }
+
+    /**
+     * Returns the number of open sites.
+     *
+     * @return the number of open sites (between {@code 1} and {@code n x n})
+     */
+    public int numberOfOpenSites() {
+        return numOfOpenSites.intValue();
+    }
+
+    /**
+     * Returns the system percolates or not. Once true it stays true.
+     *
+     * @return if the site is percolates or not
+     */
+    public boolean percolates() {
+        return isPercolates;
+    }
+
+    // identify the index is out of bound
+    private boolean outBound(int index) {
+        return 0 >= index || index > n;
+    }
+
+    // convert 2 dimension position to 1 dimension
+    private int xyTo1D(int x, int y) {
+        return (x -1) * n + y -1;
+    }
+
+    // root of site p, pointing every site on the way to its grandparent
+    private int find(int p) {
+        while (true) {
+            int q = parent.get(p);
+            if (q == p)     return p;
+            int r = parent.get(q);
+            if (q != r)     parent.compareAndSet(p, q, r);
+            p = q;
+        }
+    }
+
+    // union site with neighbor if open
+    private void connect(int site, int neighbor) {
+        if ((status.get(neighbor) & OPEN) == 0)    return;
+
+        while (true) {
+            int p = find(site);
+            int q = find(neighbor);
+            if (p == q)     return;
+
+            // always link the lower id under the higher, so concurrent
+            // links cannot form a cycle
+            if (p > q) {
+                int tmp = p;
+                p = q;
+                q = tmp;
+            }
+            if (parent.compareAndSet(p, p, q)) {
+                mergeFlags(q, status.get(p) & SPAN);
+                return;
+            }
+        }
+    }
+
+    // or flags into the root above node; flags or-ed into a node that is
+    // linked meanwhile are pushed on to its new root until they land on
+    // a node that is still a root afterwards
+    private void mergeFlags(int node, int flags) {
+        while (true) {
+            int old = status.get(node);
+            int merged = old | flags;
+            if (merged != old && !status.compareAndSet(node, old, merged))
+                continue;
+            if ((merged & SPAN) == SPAN)
+                isPercolates = true;
+            if (parent.get(node) == node)
+                return;
+            node = find(node);
+            flags = merged;
+        }
+    }
+
+    /**
+     * Opens random sites from several threads until the grid percolates.
+     *
+     * @param args the length of grid and the number of threads
+     */
+    public static void main(String[] args) throws InterruptedException {
+        final int n = Integer.parseInt(args[0]);
+        int threads = Integer.parseInt(args[1]);
+        final ConcurrentPercolation percolation = new ConcurrentPercolation(n);
+        final SplittableRandom master = new SplittableRandom();
+
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; ++i) {
+            final SplittableRandom random = master.split();
+            workers[i] = new Thread(() -> {
+                while (!percolation.percolates())
+                    percolation.open(random.nextInt(n) +1, random.nextInt(n) +1);
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread worker : workers)   worker.start();
+        for (Thread worker : workers)   worker.join();
+        long elapsed = System.nanoTime() - start;
+
+        StdOut.println("threshold " + (double) percolation.numberOfOpenSites() / ((double) n * n));
+        StdOut.println("elapsed   " + elapsed / 1000000 + " ms");
+    }
+}
@@ -0,0 +1,296 @@
+/*----------------------------------------------------------------
+ *  Author:        Jyun-Sheng Kao
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Compilation:   javac-coursera MappedPercolation.java
+ *  Execution:     java-coursera MappedPercolation [dir] < input.txt
+ *  Dependencies:  StdIn.java StdOut.java
+ *
+ *  Percolation on grids with more than 2^31 sites. Union-find
+ *  parents and site flags live in memory-mapped files, so the heap
+ *  holds nothing that grows with the grid and the operating system
+ *  pages the lattice in and out as it is touched. A 100k-by-100k
+ *  grid needs about 90 GB of free disk (8 bytes of parent and one
+ *  status byte per site), but only as much RAM as its working set.
+ *
+ *----------------------------------------------------------------*/
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdIn;
+
+public class MappedPercolation implements Closeable {
+    private static final byte OPEN = 1;     // site is open
+    private static final byte TOP = 2;      // component touches top row
+    private static final byte BOTTOM = 4;   // component touches bottom row
+    private static final byte SPAN = TOP | BOTTOM;
+
+    private final int n;
+    // parent + 1 for a child, -rank for a root: an all-zero file is a
+    // forest of rank 0 roots, so nothing needs initializing
+    private final MappedArray parent;
+    private final MappedArray status;   // flags per site, TOP/BOTTOM kept at roots
+    private long numOfOpenSites;
+    private boolean isPercolates;
+
+    /**
+     * Initializes n-by-n grid, with all sites blocked, backed by files in
+     * the default temporary-file directory.
+     *
+     * @param  n the length of grid
+     * @throws IllegalArgumentException if {@code n <= 0}
+     * @throws UncheckedIOException if the backing files cannot be mapped
+     */
+    public MappedPercolation(int n) {
+        this(n, null);
+    }
+
+    /**
+     * Initializes n-by-n grid, with all sites blocked, backed by files in
+     * the given directory. The files are sparse and removed by
+     * {@link #close()}.
+     *
+     * @param  n the length of grid
+     * @param  directory where to create the backing files, or null for
+     *         the default temporary-file directory
+     * @throws IllegalArgumentException if {@code n <= 0}
+     * @throws UncheckedIOException if the backing files cannot be mapped
+     */
+    public MappedPercolation(int n, File directory) {
+        if (n <= 0)
+            throw new IllegalArgumentException("row/col index out of bounds");
+        this.n = n;
+        long sites = (long) n * n;
+        parent = new MappedArray(sites, 8, directory);
+        try {
+            status = new MappedArray(sites, 1, directory);
+        } catch (UncheckedIOException e) {
+            parent.close();
+            throw e;
+        }
+        numOfOpenSites = 0;
+        isPercolates = false;
+    }
+
+    /**
+     * Open a site with given row and col if the site is blocked.
+     * Then, update connectivity of its open neighbors in four directions.
+     *
+     * @param row the row index of site
+     * @param col the column index of site
+     */
+    public void open(int row, int col) {
+        if (!isOpen(row, col)) {
+            long site = xyTo1D(row, col);
+            byte flags = OPEN;
+            if (row == 1)   flags |= TOP;
+            if (row == n)   flags |= BOTTOM;
+            status.putByte(site, flags);
+
+            long root = site;
+            if (row > 1)    root = connect(root, site - n);
+            if (row < n)    root = connect(root, site + n);
+            if (col > 1)    root = connect(root, site - 1);
+            if (col < n)    root = connect(root, site + 1);
+
+            ++numOfOpenSites;
+            isPercolates |= (status.getByte(root) & SPAN) == SPAN;
+        }
+    }
+
+    /**
+     * Identify site (row, col) is open
+     *
+     * @param  row the row index of site
+     * @param  col the column index of site
+     * @return if the site is open or not
+     * @throws IllegalArgumentException unless
+     *         both {@code 1 <= row <= n} and {@code 1 <= col <= n}
+     */
+    public boolean isOpen(int row, int col) {
+        if (outBound(row) || outBound(col))
+            throw new IllegalArgumentException("row/col index out of bounds");
+        return (status.getByte(xyTo1D(row, col)) & OPEN) != 0;
+    }
+
+    /**
+     * Identify site (row, col) is full
+     *
+     * @param row the row index of site
+     * @param col the column index of site
+     * @return if the site is full or not
+     * @throws IllegalArgumentException unless
+     *         both {@code 1 <= row <= n} and {@code 1 <= col <= n}
+     */
+    public boolean isFull(int row, int col) {
+        if (outBound(row) || outBound(col))
+            throw new IllegalArgumentException("row/col index out of bounds");
+        return (status.getByte(find(xyTo1D(row, col))) & TOP) != 0;
+    }
+
+    /**
+     * Returns the number of open sites.
+     *
+     * @return the number of open sites (between {@code 1} and {@code n x n})
+     */
+    public long numberOfOpenSites() {
+        return numOfOpenSites;
+    }
+
+    /**
+     * Returns the system percolates or not
+     *
+     * @return if the site is percolates or not
+     */
+    public boolean percolates() {
+        return isPercolates;
+    }
+
+    /**
+     * Closes and deletes the backing files; the grid must not be used
+     * afterwards. The mappings themselves go away once garbage collected.
+     */
+    @Override
+    public void close() {
+        parent.close();
+        status.close();
+    }
+
+    // identify the index is out of bound
+    private boolean outBound(int index) {
+        return 0 >= index || index > n;
+    }
+
+    // convert 2 dimension position to 1 dimension
+    private long xyTo1D(int x, int y) {
+        return (x -1) * (long) n + y -1;
+    }
+
+    // root of site p, halving the path on the way
+    private long find(long p) {
+        while (true) {
+            long v = parent.getLong(p);
+            if (v <= 0)     return p;
+            long q = v -1;
+            long w = parent.getLong(q);
+            if (w <= 0)     return q;
+            parent.putLong(p, w);   // point p to its grandparent
+            p = w -1;
+        }
+    }
+
+    // union component root with neighbor if open, folding both status
+    // bytes into the new root; returns the root of the merged component
+    private long connect(long root, long neighbor) {
+        if ((status.getByte(neighbor) & OPEN) == 0)    return root;
+
+        long q = find(neighbor);
+        if (root == q)    return root;
+
+        byte merged = (byte) (status.getByte(root) | status.getByte(q));
+        long rankRoot = -parent.getLong(root);
+        long rankQ = -parent.getLong(q);
+        if (rankRoot < rankQ) {
+            long tmp = root;
+            root = q;
+            q = tmp;
+        } else if (rankRoot == rankQ) {
+            parent.putLong(root, -(rankRoot +1));
+        }
+        parent.putLong(q, root +1);
+        status.putByte(root, merged);
+        return root;
+    }
+
+    // fixed-width array over a temporary file, mapped in 1 GB segments
+    private static class MappedArray implements Closeable {
+        private static final int SEGMENT_BYTES = 1 << 30;
+
+        private final int shift;    // log2 of entries per segment
+        private final int mask;     // entries per segment - 1
+        private final int width;    // bytes per entry
+        private final File file;
+        private final RandomAccessFile raf;
+        private final MappedByteBuffer[] segments;
+
+        MappedArray(long length, int width, File directory) {
+            this.width = width;
+            this.shift = Integer.numberOfTrailingZeros(SEGMENT_BYTES / width);
+            this.mask = (1 << shift) -1;
+            File created = null;
+            RandomAccessFile opened = null;
+            try {
+                created = File.createTempFile("percolation", ".map", directory);
+                opened = new RandomAccessFile(created, "rw");
+                opened.setLength(length * width);
+                FileChannel channel = opened.getChannel();
+                int count = (int) ((length + mask) >>> shift);
+                segments = new MappedByteBuffer[count];
+                for (int i = 0; i < count; ++i) {
+                    long start = (long) i * SEGMENT_BYTES;
+                    long size = Math.min(SEGMENT_BYTES, length * width - start);
+                    segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, start, size);
+                }
+            } catch (IOException e) {
+                try {
+                    if (opened != null)     opened.close();
+                } catch (IOException ignored) {
+                    // already failing, report the original error
+                }
+                if (created != null)    created.delete();
+                throw new UncheckedIOException(e);
+            }
+            file = created;
+            raf = opened;
+        }
+
+        long getLong(long i) {
+            return segments[(int) (i >>> shift)].getLong((int) (i & mask) * width);
+        }
+
+        void putLong(long i, long value) {
+            segments[(int) (i >>> shift)].putLong((int) (i & mask) * width, value);
+        }
+
+        byte getByte(long i) {
+            return segments[(int) (i >>> shift)].get((int) (i & mask));
+        }
+
+        void putByte(long i, byte value) {
+            segments[(int) (i >>> shift)].put((int) (i & mask), value);
+        }
+
+        @Override
+        public void close() {
+            try {
+                raf.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                file.delete();
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        int n = StdIn.readInt();
+        File directory = args.length > 0 ? new File(args[0]) : null;
+        try (MappedPercolation p = new MappedPercolation(n, directory)) {
+            while (!StdIn.isEmpty()) {
+                int row = StdIn.readInt();
+                int col = StdIn.readInt();
+                p.open(row, col);
+                StdOut.println("isFull(" + row + "," + col + ") = " + p.isFull(row, col));
+            }
+            StdOut.println(p.percolates());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*----------------------------------------------------------------
+ *  Author:        Jyun-Sheng Kao
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Compilation:   javac-coursera PathHalvingUF.java
+ *  Execution:     none
+ *  Dependencies:  UnionFind.java
+ *
+ *  Union-find over a single int[]: a root stores the negated size
+ *  of its tree, any other element stores its parent. Union by size
+ *  keeps trees logarithmic, path halving on every find makes the
+ *  amortized cost of find nearly constant.
+ *
+ *----------------------------------------------------------------*/
+
+public class PathHalvingUF implements UnionFind {
+    private final int[] parent; // parent link, or -size for a root
+
+    /**
+     * Initializes an empty union-find data structure with n elements,
+     * each in its own set.
+     *
+     * @param  n the number of elements
+     * @throws IllegalArgumentException if {@code n < 0}
+     */
+    public PathHalvingUF(int n) {
+        if (n < 0)
+            throw new IllegalArgumentException("n is negative");
+        parent = new int[n];
+        java.util.Arrays.fill(parent, -1);
+    }
+
+    /**
+     * Puts elements 0 through n-1 back in sets of their own, so the
+     * structure can be used again without allocating.
+     *
+     * @param  n the number of elements to reset
+     * @throws IllegalArgumentException unless {@code 0 <= n <= } the
+     *         number of elements
+     */
+    public void reset(int n) {
+        if (n < 0 || n > parent.length)
+            throw new IllegalArgumentException("n is out of range");
+        java.util.Arrays.fill(parent, 0, n, -1);
+    }
+
+    @Override
+    public int find(int p) {
+        int[] a = parent;
+        while (a[p] >= 0) {
+            int q = a[p];
+            if (a[q] < 0)
+                return q;
+            a[p] = a[q];    // point p to its grandparent
+            p = a[q];
+        }
+        return p;
+    }
+
+    @Override
+    public int union(int p, int q) {
+        int[] a = parent;
+        int rp = find(p);
+        int rq = find(q);
+        if (rp == rq)   return rp;
+
+        // a[root] is -size, so the larger tree has the smaller value
+        if (a[rp] > a[rq]) {
+            int tmp = rp;
+            rp = rq;
+            rq = tmp;
+        }
+        a[rp] += a[rq];
+        a[rq] = rp;
+        return rp;
+    }
+
+    @Override
+    public int size(int p) {
+        return -parent[find(p)];
+    }
+}
@@ -5,24 +5,27 @@
  *
  *  Compilation:   javac-coursera Percolation.java
  *  Execution:     java-coursera Percolation < input.txt
- *  Dependencies:  StdIn.java StdOut.java WeightedQuickUnionUF.java
+ *  Dependencies:  StdIn.java StdOut.java UnionFind.java PathHalvingUF.java
  *
  *----------------------------------------------------------------*/
 
-import edu.princeton.cs.algs4.WeightedQuickUnionUF;
+import java.util.BitSet;
+import java.util.function.IntFunction;
+
 import edu.princeton.cs.algs4.StdOut;
 import edu.princeton.cs.algs4.StdIn;
 
 public class Percolation {
-    private final short[][] dir = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
-
-    private boolean[][] opened; // true for site open
-    private boolean[][] top;    // true for connected to top row
-    private boolean[][] bottom; // true for connected to bottom row
+    private static final byte OPEN = 1;     // site is open
+    private static final byte TOP = 2;      // component touches top row
+    private static final byte BOTTOM = 4;   // component touches bottom row
+    private static final byte SPAN = TOP | BOTTOM;
 
     private final int n;
-    private final WeightedQuickUnionUF gridUF;  // connectivity of open sites
+    private final byte[] status;    // flags per site, TOP/BOTTOM kept at UF roots
+    private final UnionFind gridUF; // connectivity of open sites
     private int numOfOpenSites;
+    private int maxCluster;     // size of largest open component
     private boolean isPercolates;
 
     /**
@@ -32,14 +35,29 @@ public class Percolation {
      * @throws IllegalArgumentException if {@code n <= 0}
      */
     public Percolation(int n) {
+        this(n, PathHalvingUF::new);
+    }
+
+    /**
+     * Initializes n-by-n grid, with all sites blocked, whose connectivity
+     * is tracked by the union-find engine built by the given factory.
+     *
+     * @param  n the length of grid
+     * @param  engine builds a union-find over the given number of sites,
+     *         e.g. {@code PathHalvingUF::new} or {@code WeightedUF::new}
+     * @throws IllegalArgumentException if {@code n <= 0}
+     *         or {@code engine} is null
+     */
+    public Percolation(int n, IntFunction<UnionFind> engine) {
         if (n <= 0)
             throw new IllegalArgumentException("row/col index out of bounds");
+        if (engine == null)
+            throw new IllegalArgumentException("engine is null");
         this.n = n;
         numOfOpenSites = 0;
-        gridUF = new WeightedQuickUnionUF(n * n);
-        opened = new boolean[n][n];
-        top = new boolean[n][n];
-        bottom = new boolean[n][n];
+        maxCluster = 0;
+        gridUF = engine.apply(n * n);
+        status = new byte[n * n];
         isPercolates = false;
     }
 
@@ -52,29 +70,34 @@ public class Percolation {
      */
     public void open(int row, int col) {
         if (!isOpen(row, col)) {
-            opened[row -1][col -1] = true;
-            
-            top[row -1][col -1] = (row == 1);
-            bottom[row -1][col -1] = (row == n);
-            
-            int id = gridUF.find(xyTo1D(row, col));
-            for (short[] d : dir) {
-                int nextRow = row + d[0];
-                int nextCol = col + d[1];
-                if (outBound(nextRow) || outBound(nextCol))   continue;
-                if (!isOpen(nextRow, nextCol))                continue;
-                    
-                int nextId = gridUF.find(xyTo1D(nextRow, nextCol));
-
-                updateFilled(id /n +1, id % n +1, nextId /n +1, nextId % n +1);
-                gridUF.union(xyTo1D(id /n +1, id % n +1), 
-                                xyTo1D(nextId /n +1, nextId % n +1));
-                id = gridUF.find(xyTo1D(row, col));
-            }
+            int root = openSite(xyTo1D(row, col));
+            isPercolates |= (status[root] & SPAN) == SPAN;
+        }
+    }
+
+    /**
+     * Open every blocked site in the batch, where site (row, col) has id
+     * {@code (row - 1) * n + (col - 1)}. Ids are checked before any site
+     * is opened, and the percolation state is stored once at the end.
+     *
+     * @param  sites the ids of the sites to open
+     * @throws IllegalArgumentException if {@code sites} is null or
+     *         contains an id outside {@code [0, n x n)}
+     */
+    public void openAll(int[] sites) {
+        if (sites == null)
+            throw new IllegalArgumentException("sites is null");
+        for (int site : sites) {
+            if (site < 0 || site >= status.length)
+                throw new IllegalArgumentException("site index out of bounds");
+        }
 
-            ++numOfOpenSites;
-            isPercolates |= (top[id /n][id % n] && bottom[id /n][id % n]);
+        boolean spans = false;
+        for (int site : sites) {
+            if ((status[site] & OPEN) == 0)
+                spans |= (status[openSite(site)] & SPAN) == SPAN;
         }
+        isPercolates |= spans;
     }
 
     /**
@@ -89,7 +112,7 @@ public class Percolation {
     public boolean isOpen(int row, int col) {
         if (outBound(row) || outBound(col)) 
             throw new IllegalArgumentException("row/col index out of bounds");
-        return opened[row -1][col -1];
+        return (status[xyTo1D(row, col)] & OPEN) != 0;
     }
 
     /**
@@ -104,8 +127,49 @@ public class Percolation {
     public boolean isFull(int row, int col) {
         if (outBound(row) || outBound(col))
             throw new IllegalArgumentException("row/col index out of bounds");
-        int pr = gridUF.find(xyTo1D(row, col));
-        return top[pr / n][pr % n];
+        return (status[gridUF.find(xyTo1D(row, col))] & TOP) != 0;
+    }
+
+    /**
+     * Returns the open sites as a bitmap, bit {@code (row - 1) * n + (col - 1)}
+     * being set if site (row, col) is open.
+     *
+     * @return a snapshot of the open sites
+     */
+    public BitSet openSites() {
+        BitSet open = new BitSet(status.length);
+        for (int site = 0; site < status.length; ++site)
+            if ((status[site] & OPEN) != 0)     open.set(site);
+        return open;
+    }
+
+    /**
+     * Returns the full sites as a bitmap, bit {@code (row - 1) * n + (col - 1)}
+     * being set if site (row, col) is full. Computed in one pass that
+     * reuses the root of the open neighbor to the left or above, so
+     * {@code find} only runs for sites starting a new run of open sites.
+     *
+     * @return a snapshot of the full sites
+     */
+    public BitSet fullSites() {
+        BitSet full = new BitSet(status.length);
+        int[] above = new int[n];   // root of the site above, -1 if blocked
+        java.util.Arrays.fill(above, -1);
+        for (int site = 0, row = 0; row < n; ++row) {
+            int left = -1;          // root of the site to the left, -1 if blocked
+            for (int col = 0; col < n; ++col, ++site) {
+                int root = -1;
+                if ((status[site] & OPEN) != 0) {
+                    if (left >= 0)              root = left;
+                    else if (above[col] >= 0)   root = above[col];
+                    else                        root = gridUF.find(site);
+                    if ((status[root] & TOP) != 0)  full.set(site);
+                }
+                above[col] = root;
+                left = root;
+            }
+        }
+        return full;
     }
 
     /**
@@ -117,6 +181,16 @@ public class Percolation {
         return numOfOpenSites;
     }
 
+    /**
+     * Returns the number of sites in the largest connected component
+     * of open sites.
+     *
+     * @return the number of sites in the largest open cluster
+     */
+    public int largestCluster() {
+        return maxCluster;
+    }
+
     /**
      * Returns the system percolates or not
      *
@@ -136,12 +210,38 @@ public class Percolation {
         return (x -1) * n + y -1;
     }
 
-    // update connectivity of site (r1, c1) and (r2, c2)
-    private void updateFilled(int r1, int c1, int r2, int c2) {
-        top[r1 -1][c1 -1] |= top[r2 -1][c2 -1];
-        top[r2 -1][c2 -1] |= top[r1 -1][c1 -1];
-        bottom[r1 -1][c1 -1] |= bottom[r2 -1][c2 -1];
-        bottom[r2 -1][c2 -1] |= bottom[r1 -1][c1 -1];
+    // open blocked site, returns the root of its component
+    private int openSite(int site) {
+        byte flags = OPEN;
+        if (site < n)                   flags |= TOP;
+        if (site >= status.length - n)  flags |= BOTTOM;
+        status[site] = flags;
+
+        // a freshly opened site is the root of its own component
+        int col = site % n;
+        int root = site;
+        if (site >= n)                  root = connect(root, site - n);
+        if (site < status.length - n)   root = connect(root, site + n);
+        if (col > 0)                    root = connect(root, site - 1);
+        if (col < n -1)                 root = connect(root, site + 1);
+
+        ++numOfOpenSites;
+        maxCluster = Math.max(maxCluster, gridUF.size(root));
+        return root;
+    }
+
+    // union component root with neighbor if open, folding both status
+    // bytes into the new root; returns the root of the merged component
+    private int connect(int root, int neighbor) {
+        if ((status[neighbor] & OPEN) == 0)    return root;
+
+        int q = gridUF.find(neighbor);
+        if (root == q)    return root;
+
+        byte merged = (byte) (status[root] | status[q]);
+        root = gridUF.union(root, q);
+        status[root] = merged;
+        return root;
     }
 
     public static void main(String[] args) {
@@ -4,22 +4,35 @@
  *  Last updated:  5/19/2018
  *
  *  Compilation:   javac-coursera PercolationStats.java
- *  Execution:     java-coursera PercolationStats [#n #trials]
- *  Dependencies:  StdStats.java StdOut.java StdRandom.java 
+ *  Execution:     java-coursera PercolationStats #n #trials [#threads [#seed]]
+ *                 java-coursera PercolationStats #n #halfWidth
+ *  Dependencies:  StdOut.java StdRandom.java
  *                 Percolation.java
  *
  *----------------------------------------------------------------*/
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 import edu.princeton.cs.algs4.StdRandom;
-import edu.princeton.cs.algs4.StdStats;
 import edu.princeton.cs.algs4.StdOut;
 
 public class PercolationStats {
     private static final double FACTOR = 1.96;
+    private static final int TRIALS_PER_TASK = 4;  // trials run by one leaf task
+    private static final int MIN_TRIALS = 30;       // before adaptive stopping
+    private static final double NEGLIGIBLE = 1e-17; // binomial weight cut-off
     
+    private final int n;
+    private final int parallelism;
+    private final long seed;
     private final int trials;
     private final double pmean; // mean of trials
     private final double pstd;  // standard deviation of trials
+    private Sweep sweep;        // full-sweep tallies, computed on first use
 
     /**
      * Perform trials independent experiments on an n-by-n grid
@@ -29,24 +42,75 @@ public class PercolationStats {
      * @throws IllegalArgumentException if {@code n <= 0} or {@code trails <= 0}
      */
     public PercolationStats(int n, int trials) {
-        if (n <= 0 || trials <= 0)
+        this(n, trials, 1, StdRandom.uniform(Integer.MAX_VALUE));
+    }
+
+    /**
+     * Perform trials independent experiments on an n-by-n grid, spread
+     * over the given number of worker threads. Every trial draws from its
+     * own generator split off the master seed in a fixed pattern, so the
+     * same seed gives the same result for any parallelism.
+     *
+     * @param  n the length of grid
+     * @param  trials the times of trials
+     * @param  parallelism the number of worker threads
+     * @param  seed the master seed
+     * @throws IllegalArgumentException if {@code n <= 0}, {@code trails <= 0}
+     *         or {@code parallelism <= 0}
+     */
+    public PercolationStats(int n, int trials, int parallelism, long seed) {
+        if (n <= 0 || trials <= 0 || parallelism <= 0)
             throw new java.lang.IllegalArgumentException("");   
+        this.n = n;
+        this.parallelism = parallelism;
+        this.seed = seed;
         this.trials = trials;
-        double[] experiment = new double[trials];
-        for (int i = 0; i < trials; ++i) {
-            Percolation percolation = new Percolation(n);
-            while (!percolation.percolates()) {
-                int row = StdRandom.uniform(n) +1;
-                int col = StdRandom.uniform(n) +1;
-                percolation.open(row, col);
-            }
-            experiment[i] = (double) (percolation.numberOfOpenSites()) / (double) (n * n);
-            percolation = null;
-        }
+        TrialTask task = new TrialTask(n, new Scratch(n), null, 0, trials, new SplittableRandom(seed));
+        run(task);
 
-        pmean = StdStats.mean(experiment);
-        pstd = StdStats.stddev(experiment);
+        pmean = task.moments.mean;
+        pstd = task.moments.stddev();
+    }
 
+    /**
+     * Perform independent experiments on an n-by-n grid until the 95%
+     * confidence interval of the threshold is narrower than the given
+     * half-width. At least {@code MIN_TRIALS} trials run, so that a lucky
+     * start cannot stop it on a poor estimate of the standard deviation.
+     *
+     * @param  n the length of grid
+     * @param  halfWidth the target half-width of the confidence interval
+     * @throws IllegalArgumentException if {@code n <= 0} or
+     *         {@code halfWidth} is not positive
+     */
+    public PercolationStats(int n, double halfWidth) {
+        if (n <= 0 || !(halfWidth > 0))
+            throw new java.lang.IllegalArgumentException("");
+        this.n = n;
+        this.parallelism = 1;
+        this.seed = StdRandom.uniform(Integer.MAX_VALUE);
+
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] sites = new int[n * n];
+        identity(sites);
+        Moments moments = new Moments();
+        do {
+            moments.add(trial(n, sites, random));
+        } while (moments.count < MIN_TRIALS
+                || !(FACTOR * moments.stddev() / Math.sqrt(moments.count) < halfWidth));
+
+        trials = (int) moments.count;
+        pmean = moments.mean;
+        pstd = moments.stddev();
+    }
+
+    /**
+     * Returns the number of trials performed
+     *
+     * @return the number of trials performed
+     */
+    public int trials() {
+        return trials;
     }
 
     /**
@@ -85,8 +149,281 @@ public class PercolationStats {
         return mean() + FACTOR * stddev() / Math.sqrt(trials);
     }
 
+    /**
+     * Returns the probability that the grid percolates when each site is
+     * open independently with probability p, for p = 0, 1/bins, ..., 1.
+     * <p>
+     * The curve comes from one full sweep per trial (Newman-Ziff): every
+     * trial opens all n-by-n sites in random order, and the fraction of
+     * trials percolating after k opened sites is averaged over k with
+     * binomial weights. The sweeps use the seed and number of trials of
+     * this experiment, and run once no matter how many curves are asked for.
+     *
+     * @param  bins the number of intervals to split [0, 1] into
+     * @return {@code bins + 1} percolation probabilities
+     * @throws IllegalArgumentException if {@code bins <= 0}
+     */
+    public double[] thresholdCurve(int bins) {
+        if (bins <= 0)
+            throw new IllegalArgumentException("bins must be positive");
+        Sweep s = sweep();
+        double[] spanning = new double[s.spanAt.length];
+        long count = 0;
+        for (int k = 0; k < spanning.length; ++k) {
+            count += s.spanAt[k];
+            spanning[k] = (double) count / trials;
+        }
+        return convolve(spanning, bins);
+    }
+
+    /**
+     * Returns the expected fraction of sites in the largest open cluster
+     * when each site is open independently with probability p, for
+     * p = 0, 1/bins, ..., 1. Shares its sweeps with {@link #thresholdCurve}.
+     *
+     * @param  bins the number of intervals to split [0, 1] into
+     * @return {@code bins + 1} largest cluster fractions
+     * @throws IllegalArgumentException if {@code bins <= 0}
+     */
+    public double[] largestClusterCurve(int bins) {
+        if (bins <= 0)
+            throw new IllegalArgumentException("bins must be positive");
+        Sweep s = sweep();
+        double[] largest = new double[s.largest.length];
+        for (int k = 0; k < largest.length; ++k)
+            largest[k] = (double) s.largest[k] / ((double) trials * n * n);
+        return convolve(largest, bins);
+    }
+
+    // full-sweep tallies over all trials, indexed by number of open sites
+    private static class Sweep {
+        private final long[] spanAt;    // trials that first percolate at k
+        private final long[] largest;   // sum of largest cluster size at k
+
+        Sweep(int sites) {
+            spanAt = new long[sites +1];
+            largest = new long[sites +1];
+        }
+
+        void add(Sweep other) {
+            for (int k = 0; k < spanAt.length; ++k) {
+                spanAt[k] += other.spanAt[k];
+                largest[k] += other.largest[k];
+            }
+        }
+    }
+
+    private Sweep sweep() {
+        if (sweep == null) {
+            Sweep s = new Sweep(n * n);
+            Scratch scratch = new Scratch(n);
+            run(new TrialTask(n, scratch, s, 0, trials, new SplittableRandom(seed)));
+            for (Sweep tally : scratch.tallies)
+                s.add(tally);
+            sweep = s;
+        }
+        return sweep;
+    }
+
+    private void run(TrialTask task) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(task);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // average of q[k] over k ~ Binomial(q.length -1, p) for p on the bins grid
+    private static double[] convolve(double[] q, int bins) {
+        int sites = q.length -1;
+        double[] curve = new double[bins +1];
+        curve[0] = q[0];
+        curve[bins] = q[sites];
+        for (int b = 1; b < bins; ++b) {
+            double p = (double) b / bins;
+            double odds = p / (1 - p);
+            int mode = (int) Math.min(sites, Math.floor((sites +1) * p));
+
+            // weights relative to the mode, which has the largest one
+            double sum = q[mode];
+            double norm = 1.0;
+            double w = 1.0;
+            for (int k = mode; k < sites && w > NEGLIGIBLE; ++k) {
+                w *= (double) (sites - k) / (k +1) * odds;
+                sum += w * q[k +1];
+                norm += w;
+            }
+            w = 1.0;
+            for (int k = mode; k > 0 && w > NEGLIGIBLE; --k) {
+                w *= (double) k / (sites - k +1) / odds;
+                sum += w * q[k -1];
+                norm += w;
+            }
+            curve[b] = sum / norm;
+        }
+        return curve;
+    }
+
+    // running mean and sum of squared deviations (Welford)
+    private static class Moments {
+        private long count;
+        private double mean;
+        private double m2;
+
+        void add(double x) {
+            ++count;
+            double delta = x - mean;
+            mean += delta / count;
+            m2 += delta * (x - mean);
+        }
+
+        // fold in moments of another sample (Chan et al.)
+        void add(Moments other) {
+            if (other.count == 0)   return;
+            long total = count + other.count;
+            double delta = other.mean - mean;
+            mean += delta * other.count / total;
+            m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+            count = total;
+        }
+
+        // sample standard deviation, NaN for fewer than two samples
+        double stddev() {
+            return Math.sqrt(m2 / (count -1));
+        }
+    }
+
+    // arrays for one run of a task tree, one per worker thread, so leaves
+    // reuse those of the thread they run on instead of allocating
+    private static class Scratch {
+        private final ThreadLocal<int[]> sites;     // permutation of the sites
+        private final ThreadLocal<Sweep> sweep;     // sweep tallies of the thread
+        private final List<Sweep> tallies = new ArrayList<Sweep>();  // all of them
+
+        Scratch(int n) {
+            sites = ThreadLocal.withInitial(() -> new int[n * n]);
+            sweep = ThreadLocal.withInitial(() -> {
+                Sweep tally = new Sweep(n * n);
+                synchronized (tallies) {
+                    tallies.add(tally);
+                }
+                return tally;
+            });
+        }
+    }
+
+    // runs trials [lo, hi), splitting the range and its generator in
+    // halves; with a sweep to fill, runs full sweeps of the same trials
+    private static class TrialTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int n;
+        private final Scratch scratch;
+        private final Sweep sweep;
+        private final Moments moments = new Moments();
+        private final int lo;
+        private final int hi;
+        private final SplittableRandom random;
+
+        TrialTask(int n, Scratch scratch, Sweep sweep, int lo, int hi, SplittableRandom random) {
+            this.n = n;
+            this.scratch = scratch;
+            this.sweep = sweep;
+            this.lo = lo;
+            this.hi = hi;
+            this.random = random;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= TRIALS_PER_TASK) {
+                // every leaf starts from the identity, so results do not
+                // depend on which leaves ran on the thread before
+                int[] sites = scratch.sites.get();
+                identity(sites);
+                if (sweep == null) {
+                    for (int i = lo; i < hi; ++i)
+                        moments.add(trial(n, sites, random));
+                } else {
+                    // tallied per thread, summed once the whole tree is done
+                    Sweep local = scratch.sweep.get();
+                    for (int i = lo; i < hi; ++i)
+                        sweep(n, sites, random, local);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            SplittableRandom right = random.split();
+            TrialTask left = new TrialTask(n, scratch, sweep, lo, mid, random);
+            TrialTask rest = new TrialTask(n, scratch, sweep, mid, hi, right);
+            invokeAll(left, rest);
+            moments.add(left.moments);
+            moments.add(rest.moments);
+        }
+    }
+
+    private static void identity(int[] sites) {
+        for (int i = 0; i < sites.length; ++i)
+            sites[i] = i;
+    }
+
+    // open sites in random order until the grid percolates, returns the
+    // open fraction; sites is shuffled lazily, one Fisher-Yates step per
+    // opened site, so it may start from any permutation: the one left by
+    // the previous trial of the leaf, or the identity for its first
+    private static double trial(int n, int[] sites, SplittableRandom random) {
+        Percolation percolation = new Percolation(n);
+        for (int k = 0; !percolation.percolates(); ++k) {
+            int j = k + random.nextInt(sites.length - k);
+            int site = sites[j];
+            sites[j] = sites[k];
+            sites[k] = site;
+            percolation.open(site / n +1, site % n +1);
+        }
+        return (double) (percolation.numberOfOpenSites()) / ((double) n * n);
+    }
+
+    // open every site in the same order trial() would, tallying after each
+    private static void sweep(int n, int[] sites, SplittableRandom random, Sweep tally) {
+        Percolation percolation = new Percolation(n);
+        for (int k = 0; k < sites.length; ++k) {
+            int j = k + random.nextInt(sites.length - k);
+            int site = sites[j];
+            sites[j] = sites[k];
+            sites[k] = site;
+            boolean percolated = percolation.percolates();
+            percolation.open(site / n +1, site % n +1);
+            if (!percolated && percolation.percolates())
+                ++tally.spanAt[k +1];
+            tally.largest[k +1] += percolation.largestCluster();
+        }
+    }
+
+    // true iff s is a trial count rather than a half-width
+    private static boolean isInteger(String s) {
+        try {
+            Integer.parseInt(s);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
     public static void main(String[] args) {
-        PercolationStats ps = new PercolationStats(Integer.parseInt(args[0]), Integer.parseInt(args[1]));
+        int n = Integer.parseInt(args[0]);
+        PercolationStats ps;
+        if (!isInteger(args[1])) {
+            ps = new PercolationStats(n, Double.parseDouble(args[1]));
+            StdOut.println(ps.trials() + " trials");
+        } else if (args.length > 2) {
+            int trials = Integer.parseInt(args[1]);
+            int threads = Integer.parseInt(args[2]);
+            long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+            ps = new PercolationStats(n, trials, threads, seed);
+        } else {
+            ps = new PercolationStats(n, Integer.parseInt(args[1]));
+        }
         StdOut.println(ps.mean());
         StdOut.println(ps.stddev());
         StdOut.println("[" +  ps.confidenceLo() + " , " + ps.confidenceHi() + "]");
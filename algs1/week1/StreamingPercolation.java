@@ -0,0 +1,230 @@
+/*----------------------------------------------------------------
+ *  Author:        Jyun-Sheng Kao
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Compilation:   javac-coursera StreamingPercolation.java
+ *  Execution:     java-coursera StreamingPercolation < input.txt
+ *  Dependencies:  StdIn.java StdOut.java UnionFind.java PathHalvingUF.java
+ *
+ *  Hoshen-Kopelman percolation over a grid that arrives one row at
+ *  a time. Only the labels of the newest row and the state of the
+ *  clusters touching it are kept, so memory is proportional to the
+ *  width however many rows are streamed.
+ *
+ *  % more input.txt
+ *  4
+ *  1001 1011 0110 0100
+ *
+ *  % java-coursera StreamingPercolation < input.txt
+ *  row 1: 1001 percolates=true clusters=2 frontier=2 largest=1
+ *  row 2: 1011 percolates=true clusters=2 frontier=2 largest=3
+ *  row 3: 0110 percolates=true clusters=2 frontier=1 largest=5
+ *  row 4: 0100 percolates=true clusters=2 frontier=1 largest=6
+ *
+ *----------------------------------------------------------------*/
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import edu.princeton.cs.algs4.StdIn;
+import edu.princeton.cs.algs4.StdOut;
+
+public class StreamingPercolation {
+    private final int width;
+    private int rows;
+
+    // frontier: the most recent row
+    private int[] label;        // cluster label per column, -1 if blocked
+    private boolean[] top;      // top[l]: cluster l is connected to the top row
+    private long[] size;        // size[l]: sites in cluster l so far
+    private int labels;         // number of clusters on the frontier
+    private int topSites;       // frontier sites connected to the top row
+
+    private long finished;      // clusters that ended above the frontier
+    private long largest;       // sites in the largest cluster so far
+
+    // scratch indexed by union-find id: old labels, then new columns
+    private final PathHalvingUF uf;
+    private final int[] rootLabel;
+    private final boolean[] rootTop;
+    private final long[] rootSize;
+    private int[] nextLabel;
+    private boolean[] nextTop;
+    private long[] nextSize;
+
+    /**
+     * Initializes an empty stream of rows of the given width.
+     *
+     * @param  width the number of sites per row
+     * @throws IllegalArgumentException if {@code width <= 0}
+     */
+    public StreamingPercolation(int width) {
+        if (width <= 0)
+            throw new IllegalArgumentException("width must be positive");
+        this.width = width;
+        label = new int[width];
+        top = new boolean[width];
+        size = new long[width];
+        nextLabel = new int[width];
+        nextTop = new boolean[width];
+        nextSize = new long[width];
+        rootLabel = new int[2 * width];
+        rootTop = new boolean[2 * width];
+        rootSize = new long[2 * width];
+        uf = new PathHalvingUF(2 * width);
+        Arrays.fill(label, -1);
+    }
+
+    /**
+     * Appends a row below the rows streamed so far.
+     *
+     * @param  open bit {@code c} is set if the site in column {@code c}
+     *         (0-based) is open
+     * @throws IllegalArgumentException if {@code open} is null or has a
+     *         bit set at or beyond the width
+     */
+    public void addRow(BitSet open) {
+        if (open == null)
+            throw new IllegalArgumentException("row is null");
+        if (open.length() > width)
+            throw new IllegalArgumentException("row is wider than " + width);
+
+        // union-find ids: [0, labels) frontier clusters, labels + c column c
+        // at most width of the former, so ids fit in the 2 * width of uf
+        int base = labels;
+        uf.reset(base + width);
+        for (int c = open.nextSetBit(0); c >= 0; c = open.nextSetBit(c +1)) {
+            if (c > 0 && open.get(c -1))    uf.union(base + c, base + c -1);
+            if (label[c] >= 0)              uf.union(base + c, label[c]);
+        }
+
+        int ids = base + width;
+        Arrays.fill(rootLabel, 0, ids, -1);
+        Arrays.fill(rootTop, 0, ids, false);
+        Arrays.fill(rootSize, 0, ids, 0L);
+        for (int l = 0; l < base; ++l) {
+            int r = uf.find(l);
+            rootTop[r] |= top[l];
+            rootSize[r] += size[l];
+        }
+
+        int count = 0;
+        topSites = 0;
+        for (int c = 0; c < width; ++c) {
+            if (!open.get(c)) {
+                nextLabel[c] = -1;
+                continue;
+            }
+            int r = uf.find(base + c);
+            ++rootSize[r];
+            if (rows == 0)  rootTop[r] = true;
+            if (rootLabel[r] < 0)   rootLabel[r] = count++;
+            nextLabel[c] = rootLabel[r];
+            if (rootTop[r])     ++topSites;
+        }
+
+        // clusters without a site in the new row are complete
+        for (int l = 0; l < base; ++l) {
+            int r = uf.find(l);
+            if (rootLabel[r] < 0 && rootSize[r] > 0) {
+                ++finished;
+                largest = Math.max(largest, rootSize[r]);
+                rootSize[r] = 0;
+            }
+        }
+        for (int c = 0; c < width; ++c) {
+            if (nextLabel[c] < 0)   continue;
+            int r = uf.find(base + c);
+            nextTop[rootLabel[r]] = rootTop[r];
+            nextSize[rootLabel[r]] = rootSize[r];
+            largest = Math.max(largest, rootSize[r]);
+        }
+
+        int[] tmpLabel = label;
+        label = nextLabel;
+        nextLabel = tmpLabel;
+        boolean[] tmpTop = top;
+        top = nextTop;
+        nextTop = tmpTop;
+        long[] tmpSize = size;
+        size = nextSize;
+        nextSize = tmpSize;
+        labels = count;
+        ++rows;
+    }
+
+    /**
+     * Returns the number of rows streamed so far.
+     *
+     * @return the number of rows streamed so far
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * Returns whether an open path joins the first row to the most
+     * recent one. Once false it stays false.
+     *
+     * @return if the rows streamed so far percolate or not
+     */
+    public boolean percolates() {
+        return topSites > 0;
+    }
+
+    /**
+     * Returns the number of sites in the most recent row that are
+     * connected to the first row.
+     *
+     * @return the number of full sites in the most recent row
+     */
+    public int frontierTopSites() {
+        return topSites;
+    }
+
+    /**
+     * Returns the number of distinct clusters touching the most recent row.
+     *
+     * @return the number of clusters on the most recent row
+     */
+    public int frontierClusters() {
+        return labels;
+    }
+
+    /**
+     * Returns the number of clusters seen so far, counting clusters that
+     * merged as one.
+     *
+     * @return the number of clusters in the rows streamed so far
+     */
+    public long clusters() {
+        return finished + labels;
+    }
+
+    /**
+     * Returns the number of sites in the largest cluster seen so far.
+     *
+     * @return the number of sites in the largest cluster so far
+     */
+    public long largestCluster() {
+        return largest;
+    }
+
+    public static void main(String[] args) {
+        int width = StdIn.readInt();
+        StreamingPercolation sp = new StreamingPercolation(width);
+        while (!StdIn.isEmpty()) {
+            String line = StdIn.readString();
+            BitSet row = new BitSet(width);
+            for (int c = 0; c < line.length(); ++c)
+                if (line.charAt(c) == '1')  row.set(c);
+            sp.addRow(row);
+            StdOut.println("row " + sp.rows() + ": " + line
+                    + " percolates=" + sp.percolates()
+                    + " clusters=" + sp.clusters()
+                    + " frontier=" + sp.frontierClusters()
+                    + " largest=" + sp.largestCluster());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*----------------------------------------------------------------
+ *  Author:        Jyun-Sheng Kao
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Compilation:   javac-coursera UnionFind.java
+ *  Execution:     none
+ *  Dependencies:  none
+ *
+ *  Union-find engine used by Percolation.
+ *
+ *----------------------------------------------------------------*/
+
+public interface UnionFind {
+    /**
+     * Returns the canonical element of the set containing element p.
+     *
+     * @param  p an element
+     * @return the canonical element of the set containing {@code p}
+     */
+    int find(int p);
+
+    /**
+     * Merges the set containing element p with the set containing
+     * element q.
+     *
+     * @param  p one element
+     * @param  q the other element
+     * @return the canonical element of the merged set
+     */
+    int union(int p, int q);
+
+    /**
+     * Returns the number of elements in the set containing element p.
+     *
+     * @param  p an element
+     * @return the number of elements in the set containing {@code p}
+     */
+    int size(int p);
+}
@@ -0,0 +1,54 @@
+/*----------------------------------------------------------------
+ *  Author:        Jyun-Sheng Kao
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Compilation:   javac-coursera WeightedUF.java
+ *  Execution:     none
+ *  Dependencies:  UnionFind.java WeightedQuickUnionUF.java
+ *
+ *  Adapts algs4 WeightedQuickUnionUF to the UnionFind interface.
+ *
+ *----------------------------------------------------------------*/
+
+import edu.princeton.cs.algs4.WeightedQuickUnionUF;
+
+public class WeightedUF implements UnionFind {
+    private final WeightedQuickUnionUF uf;
+    private final int[] size;   // size[i] = number of elements in tree rooted at i
+
+    /**
+     * Initializes an empty union-find data structure with n elements,
+     * each in its own set.
+     *
+     * @param  n the number of elements
+     * @throws IllegalArgumentException if {@code n < 0}
+     */
+    public WeightedUF(int n) {
+        uf = new WeightedQuickUnionUF(n);
+        size = new int[n];
+        java.util.Arrays.fill(size, 1);
+    }
+
+    @Override
+    public int find(int p) {
+        return uf.find(p);
+    }
+
+    @Override
+    public int union(int p, int q) {
+        int rp = uf.find(p);
+        int rq = uf.find(q);
+        if (rp == rq)   return rp;
+
+        uf.union(rp, rq);
+        int root = uf.find(rp);
+        size[root] = size[rp] + size[rq];
+        return root;
+    }
+
+    @Override
+    public int size(int p) {
+        return size[uf.find(p)];
+    }
+}
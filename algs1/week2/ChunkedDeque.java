@@ -0,0 +1,250 @@
+/*----------------------------------------------------------------
+ *  Author:        Jyun-Sheng Kao
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Compilation:   javac-coursera ChunkedDeque.java
+ *  Execution:     java-coursera ChunkedDeque < input.txt
+ *  Dependencies:  StdIn.java StdOut.java
+ *
+ *  Deque on a doubly linked list of fixed-size chunks. Every
+ *  operation is constant time in the worst case, since growing
+ *  links one chunk instead of copying the items, and the links cost
+ *  two pointers per chunk rather than per item. One emptied chunk
+ *  is kept for reuse so a deque hovering around a chunk boundary
+ *  does not allocate.
+ *
+ *  % more input.txt
+ *  <+ A <+ B >+ C >+ D <- >- <+ E
+ *
+ *  % java-coursera ChunkedDeque < input.txt
+ *  B D (3 left on deque
+ *
+ *----------------------------------------------------------------*/
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import edu.princeton.cs.algs4.StdIn;
+import edu.princeton.cs.algs4.StdOut;
+
+public class ChunkedDeque<Item> implements Iterable<Item> {
+    private static final int CHUNK = 256;   // slots per chunk
+
+    private int n;          // number of elements on deque
+    private Chunk head;     // chunk holding the first item
+    private Chunk tail;     // chunk holding the last item
+    private int first;      // index of the first item in head
+    private int last;       // index past the last item in tail
+    private Chunk spare;    // emptied chunk kept for reuse
+
+    // helper linked list class
+    private class Chunk {
+        private final Item[] items = (Item[]) new Object[CHUNK];
+        private Chunk next;
+        private Chunk prev;
+    }
+
+    /**
+     * Initializes an empty deque.
+     */
+    public ChunkedDeque() {
+        head = new Chunk();
+        tail = head;
+        first = CHUNK /2;
+        last = CHUNK /2;
+        n = 0;
+    }
+
+    /**
+     * Is this deque empty?
+     *
+     * @return true if this deque is empty; false otherwise
+     */
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    /**
+     * Returns the number of items in the deque.
+     *
+     * @return the number of items in the deque
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Adds the item to the front of this deque.
+     *
+     * @param item the item to add
+     * @throws java.lang.IllegalArgumentException if the item is null
+     */
+    public void addFirst(Item item) {
+        if (item == null)
+            throw new IllegalArgumentException("item is null");
+
+        if (first == 0) {
+            Chunk chunk = newChunk();
+            chunk.next = head;
+            head.prev = chunk;
+            head = chunk;
+            first = CHUNK;
+        }
+        head.items[--first] = item;
+        ++n;
+    }
+
+    /**
+     * Adds the item to the end of this deque.
+     *
+     * @param item the item to add
+     * @throws java.lang.IllegalArgumentException if the item is null
+     */
+    public void addLast(Item item) {
+        if (item == null)
+            throw new IllegalArgumentException("item is null");
+
+        if (last == CHUNK) {
+            Chunk chunk = newChunk();
+            chunk.prev = tail;
+            tail.next = chunk;
+            tail = chunk;
+            last = 0;
+        }
+        tail.items[last++] = item;
+        ++n;
+    }
+
+    /**
+     * Removes and returns the item most recently added to the front of this
+     * deque.
+     *
+     * @return the item most recently added to the front of deque
+     * @throws java.util.NoSuchElementException if this deque is empty
+     */
+    public Item removeFirst() {
+        if (isEmpty())
+            throw new NoSuchElementException("Deque underflow");
+
+        Item item = head.items[first];
+        head.items[first++] = null;     // avoid loitering
+        --n;
+
+        if (n == 0) {           // recenter so both ends have room
+            first = CHUNK /2;
+            last = CHUNK /2;
+        } else if (first == CHUNK) {
+            Chunk empty = head;
+            head = head.next;
+            head.prev = null;
+            recycle(empty);
+            first = 0;
+        }
+        return item;
+    }
+
+    /**
+     * Removes and returns the item most recently added to the end of this
+     * deque.
+     *
+     * @return the item most recently added to the end of deque
+     * @throws java.util.NoSuchElementException if this deque is empty
+     */
+    public Item removeLast() {
+        if (isEmpty())
+            throw new NoSuchElementException("Deque underflow");
+
+        Item item = tail.items[--last];
+        tail.items[last] = null;    // avoid loitering
+        --n;
+
+        if (n == 0) {           // recenter so both ends have room
+            first = CHUNK /2;
+            last = CHUNK /2;
+        } else if (last == 0) {
+            Chunk empty = tail;
+            tail = tail.prev;
+            tail.next = null;
+            recycle(empty);
+            last = CHUNK;
+        }
+        return item;
+    }
+
+    /**
+     * Returns an iterator to this deque that iterates through the items from
+     * head to tail.
+     *
+     * @return an iterator to this deque that iterates through the items from
+     *         head to tail
+     */
+    public Iterator<Item> iterator() {
+        return new DequeIterator();
+    }
+
+    // the spare chunk if there is one, a new chunk otherwise
+    private Chunk newChunk() {
+        if (spare == null)
+            return new Chunk();
+        Chunk chunk = spare;
+        spare = null;
+        return chunk;
+    }
+
+    // keep an emptied chunk unless one is already kept
+    private void recycle(Chunk chunk) {
+        chunk.next = null;
+        chunk.prev = null;
+        if (spare == null)  spare = chunk;
+    }
+
+    // an iterator, doesn't implement remove() since it's optional
+    private class DequeIterator implements Iterator<Item> {
+        private Chunk current = head;
+        private int index = first;
+        private int left = n;
+
+        public boolean hasNext() {
+            return left > 0;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        public Item next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            if (index == CHUNK) {
+                current = current.next;
+                index = 0;
+            }
+            --left;
+            return current.items[index++];
+        }
+    }
+
+    /**
+     * Unit tests the {@code ChunkedDeque} data type.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        ChunkedDeque<String> deque = new ChunkedDeque<String>();
+        while (!StdIn.isEmpty()) {
+            String cmd = StdIn.readString();
+            if (cmd.equals("<-"))
+                StdOut.print(deque.removeLast() + " ");
+            else if (cmd.equals(">-"))
+                StdOut.print(deque.removeFirst() + " ");
+            else if (cmd.equals("<+")) {
+                String item = StdIn.readString();
+                deque.addLast(item);
+            } else if (cmd.equals(">+")) {
+                String item = StdIn.readString();
+                deque.addFirst(item);
+            }
+        }
+        StdOut.println("(" + deque.size() + " left on deque");
+    }
+}
@@ -0,0 +1,301 @@
+/*----------------------------------------------------------------
+ *  Author:        Jyun-Sheng Kao
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Compilation:   javac-coursera ConcurrentRandomizedQueue.java
+ *  Execution:     java-coursera ConcurrentRandomizedQueue [#threads [#items]]
+ *  Dependencies:  StdOut.java RandomizedQueue.java
+ *
+ *  Randomized queue shared by many threads. Items are spread over
+ *  stripes, each a small randomized queue under its own lock and
+ *  padded to its own cache lines. Every thread enqueues to a home
+ *  stripe handed out round-robin on its first enqueue, so up to as
+ *  many producers as stripes never share a lock. Dequeue and sample
+ *  pick a stripe with probability proportional to its size, then an
+ *  item uniformly within it.
+ *
+ *  When no other thread is changing the queue this draws every item
+ *  with probability exactly 1/n. While others are, the stripe sizes
+ *  are read without locking and may be stale by the operations in
+ *  flight, so an item's probability is off by roughly (concurrent
+ *  operations) / n; a stripe found empty is simply drawn again.
+ *
+ *  main() checks every enqueued item is dequeued exactly once, then
+ *  times enqueues against a RandomizedQueue behind one lock. The run
+ *  below is on a single core; the gap widens with a core per thread.
+ *
+ *  % java-coursera ConcurrentRandomizedQueue 4 1000000
+ *  stress: 1000000 items, 4 threads, ok
+ *  ConcurrentRandomizedQueue   : 37 ms
+ *  synchronized RandomizedQueue: 73 ms
+ *
+ *----------------------------------------------------------------*/
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import edu.princeton.cs.algs4.StdOut;
+
+public class ConcurrentRandomizedQueue<Item> {
+    private final Stripe<Item>[] stripes;
+    private final int mask;
+    private final AtomicInteger nextHome;           // round-robin stripe counter
+    private final ThreadLocal<Stripe<Item>> home;   // stripe each thread enqueues to
+
+    // cache line of padding ahead of a stripe's fields; superclass fields
+    // are laid out first
+    private static class LeftPad {
+        long p1, p2, p3, p4, p5, p6, p7;
+    }
+
+    // randomized queue on a resizing array, guarded by its own monitor
+    private static class Stripe<Item> extends LeftPad {
+        private Item[] arr = (Item[]) new Object[2];
+        private volatile int n;     // read without the lock to weigh stripes
+
+        synchronized void add(Item item) {
+            if (n == arr.length)    arr = copy(arr.length * 2);
+            arr[n] = item;
+            n = n +1;
+        }
+
+        // a uniformly drawn item, removed; null if this stripe is empty
+        synchronized Item remove(ThreadLocalRandom random) {
+            if (n == 0)     return null;
+            int last = n -1;
+            int target = random.nextInt(n);
+            Item item = arr[target];
+            arr[target] = arr[last];
+            arr[last] = null;   // avoid loitering
+            n = last;
+            if (last > 0 && last == arr.length /4)  arr = copy(arr.length /2);
+            return item;
+        }
+
+        // a uniformly drawn item; null if this stripe is empty
+        synchronized Item sample(ThreadLocalRandom random) {
+            if (n == 0)     return null;
+            return arr[random.nextInt(n)];
+        }
+
+        private Item[] copy(int capacity) {
+            Item[] tmp = (Item[]) new Object[capacity];
+            for (int i = 0; i < n; ++i)
+                tmp[i] = arr[i];
+            return tmp;
+        }
+    }
+
+    // cache line of padding after a stripe's fields, so two stripes' sizes
+    // and monitors never share a line
+    private static final class PaddedStripe<Item> extends Stripe<Item> {
+        long q1, q2, q3, q4, q5, q6, q7;
+    }
+
+    /**
+     * Initializes an empty randomized queue with one stripe per available
+     * processor, rounded up to a power of two.
+     */
+    public ConcurrentRandomizedQueue() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Initializes an empty randomized queue with at least the given number
+     * of stripes.
+     *
+     * @param  concurrency the expected number of threads enqueuing at once
+     * @throws IllegalArgumentException if {@code concurrency <= 0}
+     */
+    public ConcurrentRandomizedQueue(int concurrency) {
+        if (concurrency <= 0)
+            throw new IllegalArgumentException("concurrency must be positive");
+        int count = 1;
+        while (count < concurrency)
+            count <<= 1;
+        stripes = (Stripe<Item>[]) new Stripe[count];
+        for (int i = 0; i < count; ++i)
+            stripes[i] = new PaddedStripe<Item>();
+        mask = count -1;
+        nextHome = new AtomicInteger();
+        home = ThreadLocal.withInitial(() -> stripes[nextHome.getAndIncrement() & mask]);
+    }
+
+    /**
+     * Is this randomized queue empty? Exact only when no other thread is
+     * using it.
+     * @return true if this randomized queue is empty; false otherwize
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns the number of items in the randomized queue. Exact only when
+     * no other thread is using it.
+     * @return the number of items in the randomized queue
+     */
+    public int size() {
+        int total = 0;
+        for (Stripe<Item> stripe : stripes)
+            total += stripe.n;
+        return total;
+    }
+
+    /**
+     * Adds the item to the calling thread's stripe.
+     * @param item the item to add
+     * @throws java.lang.IllegalArgumentException if the item is null
+     */
+    public void enqueue(Item item) {
+        if (item == null)
+            throw new IllegalArgumentException("item is null");
+        home.get().add(item);
+    }
+
+    /**
+     * Removes and returns a random item.
+     * @return the item in the randomized queue
+     * @throws java.util.NoSuchElementException if every stripe is empty
+     */
+    public Item dequeue() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            Stripe<Item> stripe = pick(random);
+            if (stripe == null)
+                throw new NoSuchElementException("Randomized queue underflow");
+            Item item = stripe.remove(random);
+            if (item != null)   return item;
+        }
+    }
+
+    /**
+     * Returns (but does not remove) a random item.
+     * @return the item in the randomized queue
+     * @throws java.util.NoSuchElementException if every stripe is empty
+     */
+    public Item sample() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            Stripe<Item> stripe = pick(random);
+            if (stripe == null)
+                throw new NoSuchElementException("");
+            Item item = stripe.sample(random);
+            if (item != null)   return item;
+        }
+    }
+
+    // stripe drawn with probability proportional to its size; null if
+    // all stripes look empty
+    private Stripe<Item> pick(ThreadLocalRandom random) {
+        while (true) {
+            int total = 0;
+            for (Stripe<Item> stripe : stripes)
+                total += stripe.n;
+            if (total == 0)     return null;
+
+            // sizes are read again while walking; if they shrank meanwhile
+            // the walk can run off the end, then draw again
+            int r = random.nextInt(total);
+            for (Stripe<Item> stripe : stripes) {
+                int size = stripe.n;
+                if (r < size)   return stripe;
+                r -= size;
+            }
+        }
+    }
+
+    // threads enqueue their share of items, then dequeue until the queue
+    // is drained; returns elapsed nanoseconds of the enqueue phase
+    private static long stress(int threads, final int items, boolean check) throws InterruptedException {
+        final ConcurrentRandomizedQueue<Integer> queue = new ConcurrentRandomizedQueue<Integer>(threads);
+        final AtomicIntegerArray taken = new AtomicIntegerArray(items);
+        final Integer[] boxed = new Integer[items];
+        for (int i = 0; i < items; ++i)
+            boxed[i] = i;
+
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; ++t) {
+            final int from = (int) ((long) items * t / threads);
+            final int to = (int) ((long) items * (t +1) / threads);
+            workers[t] = new Thread(() -> {
+                for (int i = from; i < to; ++i)
+                    queue.enqueue(boxed[i]);
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread worker : workers)   worker.start();
+        for (Thread worker : workers)   worker.join();
+        long elapsed = System.nanoTime() - start;
+
+        if (check) {
+            for (int t = 0; t < threads; ++t) {
+                workers[t] = new Thread(() -> {
+                    try {
+                        while (true)
+                            taken.incrementAndGet(queue.dequeue());
+                    } catch (NoSuchElementException e) {
+                        // drained
+                    }
+                });
+            }
+            for (Thread worker : workers)   worker.start();
+            for (Thread worker : workers)   worker.join();
+            for (int i = 0; i < items; ++i)
+                if (taken.get(i) != 1)
+                    throw new AssertionError("item " + i + " taken " + taken.get(i) + " times");
+        }
+        return elapsed;
+    }
+
+    // same enqueues on a RandomizedQueue behind one lock; returns elapsed
+    // nanoseconds
+    private static long baseline(int threads, final int items) throws InterruptedException {
+        final RandomizedQueue<Integer> queue = new RandomizedQueue<Integer>();
+        final Integer[] boxed = new Integer[items];
+        for (int i = 0; i < items; ++i)
+            boxed[i] = i;
+
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; ++t) {
+            final int from = (int) ((long) items * t / threads);
+            final int to = (int) ((long) items * (t +1) / threads);
+            workers[t] = new Thread(() -> {
+                for (int i = from; i < to; ++i)
+                    synchronized (queue) {
+                        queue.enqueue(boxed[i]);
+                    }
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread worker : workers)   worker.start();
+        for (Thread worker : workers)   worker.join();
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Stress tests the {@code ConcurrentRandomizedQueue} data type and
+     * compares its enqueues with a synchronized {@code RandomizedQueue}.
+     *
+     * @param args the number of threads and the number of items
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int items = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+
+        for (int round = 0; round < 3; ++round)
+            stress(threads, items, true);
+        StdOut.println("stress: " + items + " items, " + threads + " threads, ok");
+
+        // warm up both before timing
+        for (int round = 0; round < 3; ++round) {
+            stress(threads, items, false);
+            baseline(threads, items);
+        }
+        StdOut.println("ConcurrentRandomizedQueue   : " + stress(threads, items, false) / 1000000 + " ms");
+        StdOut.println("synchronized RandomizedQueue: " + baseline(threads, items) / 1000000 + " ms");
+    }
+}
@@ -22,23 +22,18 @@ import edu.princeton.cs.algs4.StdIn;
 import edu.princeton.cs.algs4.StdOut;
 
 public class Deque<Item> implements Iterable<Item> {
-    private int n;      // number of elements on deque
-    private Node head;  // head pointer of this deque
-    private Node tail;  // tail pointer of this deque
-
-    // helper linked list class
-    private class Node {
-        private Item item;
-        private Node next;
-        private Node prev;
-    }
+    private static final int MIN_CAPACITY = 8;  // power of two
+
+    private Item[] items;   // circular buffer, length is a power of two
+    private int head;       // index of the first item
+    private int n;          // number of elements on deque
 
     /**
      * Initializes an empty deque.
      */
     public Deque() {
-        head = null;
-        tail = null;
+        items = (Item[]) new Object[MIN_CAPACITY];
+        head = 0;
         n = 0;
     }
 
@@ -48,7 +43,7 @@ public class Deque<Item> implements Iterable<Item> {
      * @return true if this deque is empty; false otherwise
      */
     public boolean isEmpty() {
-        return head == null || tail == null;
+        return n == 0;
     }
 
     /**
@@ -70,15 +65,9 @@ public class Deque<Item> implements Iterable<Item> {
         if (item == null)
             throw new IllegalArgumentException("item is null");
 
-        Node oldFront = head;
-        head = new Node();
-        head.item = item;
-        head.next = oldFront;
-
-        if (head.next == null)  // only one item in the deque now
-            tail = head;
-        else
-            oldFront.prev = head;
+        if (n == items.length)  resize(items.length * 2);
+        head = (head -1) & (items.length -1);
+        items[head] = item;
         ++n;
     }
 
@@ -92,15 +81,8 @@ public class Deque<Item> implements Iterable<Item> {
         if (item == null)
             throw new IllegalArgumentException("item is null");
 
-        Node oldLast = tail;
-        tail = new Node();
-        tail.item = item;
-        tail.prev = oldLast;
-        
-        if (oldLast != null)    // only one item in the deque now
-            oldLast.next = tail;
-        else
-            head = tail;
+        if (n == items.length)  resize(items.length * 2);
+        items[(head + n) & (items.length -1)] = item;
         ++n;
     }
 
@@ -115,14 +97,11 @@ public class Deque<Item> implements Iterable<Item> {
         if (isEmpty())
             throw new NoSuchElementException("Deque underflow");
         
-        Item item = head.item;
-        head = head.next;
-
-        if (head == null)   // empty deque
-            tail = null; 
-        else
-            head.prev = null;
+        Item item = items[head];
+        items[head] = null;     // avoid loitering
+        head = (head +1) & (items.length -1);
         --n;
+        shrinkIfSparse();
         return item;
     }
 
@@ -137,14 +116,11 @@ public class Deque<Item> implements Iterable<Item> {
         if (isEmpty())
             throw new NoSuchElementException("Deque underflow");
 
-        Item item = tail.item;
-        tail = tail.prev;
-        
-        if (tail == null)   // empty deque
-            head = null;
-        else
-            tail.next = null;
+        int last = (head + n -1) & (items.length -1);
+        Item item = items[last];
+        items[last] = null;     // avoid loitering
         --n;
+        shrinkIfSparse();
         return item;
     }
 
@@ -159,12 +135,30 @@ public class Deque<Item> implements Iterable<Item> {
         return new DequeIterator();
     }
 
+    // halve the buffer once it is a quarter full
+    private void shrinkIfSparse() {
+        if (items.length > MIN_CAPACITY && n == items.length /4)
+            resize(items.length /2);
+    }
+
+    // move the items to a buffer of given capacity, starting at index 0
+    private void resize(int capacity) {
+        assert capacity >= n && Integer.bitCount(capacity) == 1;
+
+        Item[] tmp = (Item[]) new Object[capacity];
+        int front = Math.min(n, items.length - head);   // items before wrapping
+        System.arraycopy(items, head, tmp, 0, front);
+        System.arraycopy(items, 0, tmp, front, n - front);
+        items = tmp;
+        head = 0;
+    }
+
     // an iterator, doesn't implement remove() since it's optional
     private class DequeIterator implements Iterator<Item> {
-        private Node current = head;
+        private int i = 0;
 
         public boolean hasNext() {  
-            return current != null; 
+            return i < n; 
         }
         
         public void remove() {
@@ -173,9 +167,7 @@ public class Deque<Item> implements Iterable<Item> {
 
         public Item next() {
             if (!hasNext()) throw new NoSuchElementException();
-            Item item = current.item;
-            current = current.next;
-            return item;
+            return items[(head + i++) & (items.length -1)];
         }
     }
 
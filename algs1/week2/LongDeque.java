@@ -0,0 +1,186 @@
+/*----------------------------------------------------------------
+ *  Author:        Jyun-Sheng Kao
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Compilation:   javac-coursera LongDeque.java
+ *  Execution:     java-coursera LongDeque < input.txt
+ *  Dependencies:  StdIn.java StdOut.java
+ *
+ *  A deque of primitive longs on a circular array, so pushing and
+ *  iterating never box.
+ *
+ *  % more input.txt
+ *  <+ 1 <+ 2 >+ 3 >+ 4 <- >- <+ 5
+ *
+ *  % java-coursera LongDeque < input.txt
+ *  2 4 (3 left on deque
+ *
+ *----------------------------------------------------------------*/
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+import edu.princeton.cs.algs4.StdIn;
+import edu.princeton.cs.algs4.StdOut;
+
+public class LongDeque {
+    private static final int MIN_CAPACITY = 8;  // power of two
+
+    private long[] items;   // circular buffer, length is a power of two
+    private int head;       // index of the first item
+    private int n;          // number of elements on deque
+
+    /**
+     * Initializes an empty deque.
+     */
+    public LongDeque() {
+        items = new long[MIN_CAPACITY];
+        head = 0;
+        n = 0;
+    }
+
+    /**
+     * Is this deque empty?
+     *
+     * @return true if this deque is empty; false otherwise
+     */
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    /**
+     * Returns the number of items in the deque.
+     * 
+     * @return the number of items in the deque
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Adds the item to the front of this deque.
+     * 
+     * @param item the item to add
+     */
+    public void addFirst(long item) {
+        if (n == items.length)  resize(items.length * 2);
+        head = (head -1) & (items.length -1);
+        items[head] = item;
+        ++n;
+    }
+
+    /**
+     * Adds the item to the end of this deque.
+     *
+     * @param item the item to add
+     */
+    public void addLast(long item) {
+        if (n == items.length)  resize(items.length * 2);
+        items[(head + n) & (items.length -1)] = item;
+        ++n;
+    }
+
+    /**
+     * Removes and returns the item most recently added to the front of this 
+     * deque.
+     *
+     * @return the item most recently added to the front of deque
+     * @throws java.util.NoSuchElementException if this deque is empty
+     */
+    public long removeFirst() {
+        if (isEmpty())
+            throw new NoSuchElementException("Deque underflow");
+        
+        long item = items[head];
+        head = (head +1) & (items.length -1);
+        --n;
+        shrinkIfSparse();
+        return item;
+    }
+
+    /**
+     * Removes and returns the item most recently added to the end of this
+     * deque.
+     *
+     * @return the item most recently added to the end of deque
+     * @throws java.util.NoSuchElementException if this deque is empty
+     */
+    public long removeLast() {
+        if (isEmpty())
+            throw new NoSuchElementException("Deque underflow");
+
+        long item = items[(head + n -1) & (items.length -1)];
+        --n;
+        shrinkIfSparse();
+        return item;
+    }
+
+    /**
+     * Returns an iterator to this deque that iterates through the items from 
+     * head to tail without boxing them.
+     *
+     * @return an iterator to this deque that iterates through the items from
+     *         head to tail 
+     */
+    public PrimitiveIterator.OfLong iterator() {
+        return new DequeIterator();
+    }
+
+    // halve the buffer once it is a quarter full
+    private void shrinkIfSparse() {
+        if (items.length > MIN_CAPACITY && n == items.length /4)
+            resize(items.length /2);
+    }
+
+    // move the items to a buffer of given capacity, starting at index 0
+    private void resize(int capacity) {
+        assert capacity >= n && Integer.bitCount(capacity) == 1;
+
+        long[] tmp = new long[capacity];
+        int front = Math.min(n, items.length - head);   // items before wrapping
+        System.arraycopy(items, head, tmp, 0, front);
+        System.arraycopy(items, 0, tmp, front, n - front);
+        items = tmp;
+        head = 0;
+    }
+
+    // an iterator, doesn't implement remove() since it's optional
+    private class DequeIterator implements PrimitiveIterator.OfLong {
+        private int i = 0;
+
+        public boolean hasNext() {  
+            return i < n; 
+        }
+        
+        public void remove() {
+            throw new UnsupportedOperationException(); 
+        }
+
+        public long nextLong() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return items[(head + i++) & (items.length -1)];
+        }
+    }
+
+    /**
+     * Unit tests the {@code LongDeque} data type.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        LongDeque deque = new LongDeque();
+        while (!StdIn.isEmpty()) {
+            String cmd = StdIn.readString();
+            if (cmd.equals("<-"))
+                StdOut.print(deque.removeLast() + " ");
+            else if (cmd.equals(">-"))
+                StdOut.print(deque.removeFirst() + " ");
+            else if (cmd.equals("<+"))
+                deque.addLast(Long.parseLong(StdIn.readString()));
+            else if (cmd.equals(">+"))
+                deque.addFirst(Long.parseLong(StdIn.readString()));
+        }
+        StdOut.println("(" + deque.size() + " left on deque");
+    }
+}
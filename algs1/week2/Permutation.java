@@ -4,8 +4,17 @@
  *  Last updated:  5/23/2018
  *
  *  Compilation:   javac-coursera Permutaion.java
- *  Execution:     java-coursera Permutaion {n} < input.txt
- *  Dependencies:  StdIn.java StdOut.java
+ *  Execution:     java-coursera Permutaion {n} [file] < input.txt
+ *  Dependencies:  StdOut.java StdRandom.java RandomizedQueue.java
+ *
+ *  Prints n tokens drawn uniformly from the input, read from the file
+ *  if one is given and from standard input otherwise. Sampling is
+ *  Li's Algorithm L: after the reservoir fills, the number of tokens
+ *  to pass over before the next replacement is drawn directly from
+ *  its geometric distribution, so the generator is called
+ *  O(n log(N/n)) times for N tokens. Skipped tokens are only scanned
+ *  for whitespace in a raw byte buffer; a String is built just for
+ *  tokens that enter the reservoir.
  *
  *  % more input.txt
  *  A B C D E
@@ -17,31 +26,130 @@
  *
  *----------------------------------------------------------------*/
 
-import edu.princeton.cs.algs4.StdIn;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
 import edu.princeton.cs.algs4.StdOut;
 import edu.princeton.cs.algs4.StdRandom;
 
 public class Permutation {
-    public static void main(String[] args) {
-        RandomizedQueue<String> rq = new RandomizedQueue<String>();
-        int k = 0;
-        if (args.length == 1)   k = Integer.parseInt(args[0]);
-        
-        int count = 1;  // For reservoir sampling
-        while (!StdIn.isEmpty()) {
-            String str = StdIn.readString();
-            if (rq.size() == k) {
-                if (StdRandom.uniform(count) < k) {
-                    rq.dequeue();
-                    rq.enqueue(str);
+    private static final int BUFFER = 1 << 16;
+
+    // whitespace separated tokens of a channel, bytes <= 0x20 separate
+    private static class Tokens {
+        private final ReadableByteChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER);
+        private final byte[] bytes = buffer.array();
+        private int pos;
+        private int limit;
+        private byte[] token = new byte[64];    // bytes of the last kept token
+
+        Tokens(ReadableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        // next byte, or -1 at end of input
+        private int read() throws IOException {
+            while (pos == limit) {
+                buffer.clear();
+                int read = channel.read(buffer);
+                if (read < 0)   return -1;
+                pos = 0;
+                limit = read;
+            }
+            return bytes[pos++] & 0xff;
+        }
+
+        // first byte of the next token, or -1 at end of input
+        private int start() throws IOException {
+            int b = read();
+            while (b >= 0 && b <= 0x20)
+                b = read();
+            return b;
+        }
+
+        // passes over up to count tokens; returns the number passed over
+        long skip(long count) throws IOException {
+            long skipped = 0;
+            while (skipped < count) {
+                if (start() < 0)    return skipped;
+                // scan the rest of the token straight in the buffer
+                while (true) {
+                    while (pos < limit && (bytes[pos] & 0xff) > 0x20)
+                        ++pos;
+                    if (pos < limit || read() < 0)  break;
+                    --pos;  // read() consumed a byte of a refilled buffer
                 }
-            } else {
-                rq.enqueue(str);
+                ++skipped;
             }
-            ++count;
+            return skipped;
         }
 
-        for (int i = 0; i < k; ++i)
+        // the next token, or null at end of input
+        String next() throws IOException {
+            int b = start();
+            if (b < 0)  return null;
+            int length = 0;
+            while (b > 0x20) {
+                if (length == token.length)
+                    token = Arrays.copyOf(token, 2 * length);
+                token[length++] = (byte) b;
+                b = read();
+            }
+            return new String(token, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    // uniform on (0, 1], so its log is finite
+    private static double open01() {
+        return 1.0 - StdRandom.uniform();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int k = 0;
+        if (args.length >= 1)   k = Integer.parseInt(args[0]);
+        if (k <= 0)     return;
+
+        FileChannel channel = args.length >= 2
+                ? FileChannel.open(Paths.get(args[1]), StandardOpenOption.READ)
+                : new FileInputStream(FileDescriptor.in).getChannel();
+        Tokens tokens = new Tokens(channel);
+
+        // fill the reservoir
+        String[] reservoir = new String[k];
+        int count = 0;
+        String str;
+        while (count < k && (str = tokens.next()) != null)
+            reservoir[count++] = str;
+
+        // Algorithm L: w shrinks like the chance that a later token is kept
+        if (count == k) {
+            double w = Math.exp(Math.log(open01()) / k);
+            while (true) {
+                double gap = Math.floor(Math.log(open01()) / Math.log1p(-w));
+                long skip = (long) gap;     // saturates when w underflows
+                if (tokens.skip(skip) < skip)   break;
+                str = tokens.next();
+                if (str == null)    break;
+                reservoir[StdRandom.uniform(k)] = str;
+                w *= Math.exp(Math.log(open01()) / k);
+            }
+        }
+        channel.close();
+
+        // the reservoir keeps arrival order in places, shuffle it
+        RandomizedQueue<String> rq = new RandomizedQueue<String>();
+        for (int i = 0; i < count; ++i)
+            rq.enqueue(reservoir[i]);
+        while (!rq.isEmpty())
             StdOut.println(rq.dequeue());
     }
 }
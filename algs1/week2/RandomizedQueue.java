@@ -15,16 +15,26 @@
  *
  *----------------------------------------------------------------*/
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
 
 import edu.princeton.cs.algs4.StdIn;
 import edu.princeton.cs.algs4.StdOut;
 import edu.princeton.cs.algs4.StdRandom;
 
 public class RandomizedQueue<Item> implements Iterable<Item> {
+    // generator for the batch operations when the caller gives none
+    private static final ThreadLocal<SplittableRandom> RANDOM =
+            ThreadLocal.withInitial(SplittableRandom::new);
+
     private Item[] arr; // array of items
     private int n;      // number of elements in randomized queue
+    private int modCount;   // enqueues and dequeues, to catch stale iterators
 
     /**
      * Initializes an empty randomized queue.
@@ -62,6 +72,33 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         if (n == arr.length)    // double size of array if necessary   
             resize(arr.length * 2);
         arr[n++] = item;
+        ++modCount;
+    }
+
+    /**
+     * Adds all the items to this randomized queue, growing the array at
+     * most once.
+     * @param items the items to add
+     * @throws java.lang.IllegalArgumentException if {@code items} is null
+     *         or contains null; no item is added then
+     */
+    public void enqueueAll(Collection<? extends Item> items) {
+        if (items == null)
+            throw new IllegalArgumentException("items is null");
+        Object[] batch = items.toArray();
+        for (Object item : batch)
+            if (item == null)
+                throw new IllegalArgumentException("item is null");
+
+        if (n + batch.length > arr.length) {
+            int capacity = arr.length;
+            while (capacity < n + batch.length)
+                capacity *= 2;
+            resize(capacity);
+        }
+        for (Object item : batch)
+            arr[n++] = (Item) item;
+        ++modCount;
     }
 
     /**
@@ -78,6 +115,7 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         arr[target] = arr[n -1];
         arr[n -1] = null;
         --n;
+        ++modCount;
 
         // shrink size of array if necessary
         if (n > 0 && n == arr.length /4) resize(arr.length /2);
@@ -96,9 +134,121 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         return arr[StdRandom.uniform(n)];
     }
 
+    /**
+     * Removes and returns k items chosen uniformly at random, using a
+     * per-thread generator.
+     * @param k the number of items to remove
+     * @return the removed items, in random order
+     * @throws java.lang.IllegalArgumentException if {@code k < 0}
+     * @throws java.util.NoSuchElementException if fewer than k items are
+     *         in this randomized queue
+     */
+    public List<Item> dequeueBatch(int k) {
+        return dequeueBatch(k, RANDOM.get());
+    }
+
+    /**
+     * Removes and returns k items chosen uniformly at random, shrinking
+     * the array at most once.
+     * @param k the number of items to remove
+     * @param random the generator to draw from
+     * @return the removed items, in random order
+     * @throws java.lang.IllegalArgumentException if {@code k < 0} or
+     *         {@code random} is null
+     * @throws java.util.NoSuchElementException if fewer than k items are
+     *         in this randomized queue
+     */
+    public List<Item> dequeueBatch(int k, SplittableRandom random) {
+        if (k < 0 || random == null)
+            throw new IllegalArgumentException("");
+        if (k > n)
+            throw new NoSuchElementException("Randomized queue underflow");
+
+        List<Item> batch = new ArrayList<Item>(k);
+        for (int i = 0; i < k; ++i) {
+            int target = random.nextInt(n);
+            batch.add(arr[target]);
+            arr[target] = arr[n -1];
+            arr[n -1] = null;
+            --n;
+        }
+        ++modCount;
+
+        // shrink size of array if necessary
+        int capacity = arr.length;
+        while (n > 0 && n <= capacity /4)
+            capacity /= 2;
+        if (capacity != arr.length)     resize(capacity);
+        return batch;
+    }
+
+    /**
+     * Returns (but does not remove) k items chosen at random, using a
+     * per-thread generator.
+     * @param k the number of items to return
+     * @param replacement whether an item may be returned more than once
+     * @return the chosen items, in random order
+     * @throws java.lang.IllegalArgumentException if {@code k < 0}, or if
+     *         {@code k} exceeds the size without replacement
+     * @throws java.util.NoSuchElementException if this randomized queue
+     *         is empty and {@code k > 0}
+     */
+    public List<Item> sample(int k, boolean replacement) {
+        return sample(k, replacement, RANDOM.get());
+    }
+
+    /**
+     * Returns (but does not remove) k items chosen at random. Without
+     * replacement a partial Fisher-Yates shuffle picks them in place and
+     * is undone afterwards, so the queue is left exactly as it was.
+     * @param k the number of items to return
+     * @param replacement whether an item may be returned more than once
+     * @param random the generator to draw from
+     * @return the chosen items, in random order
+     * @throws java.lang.IllegalArgumentException if {@code k < 0},
+     *         {@code random} is null, or if {@code k} exceeds the size
+     *         without replacement
+     * @throws java.util.NoSuchElementException if this randomized queue
+     *         is empty and {@code k > 0}
+     */
+    public List<Item> sample(int k, boolean replacement, SplittableRandom random) {
+        if (k < 0 || random == null)
+            throw new IllegalArgumentException("");
+        if (k > 0 && isEmpty())
+            throw new NoSuchElementException("");
+        if (!replacement && k > n)
+            throw new IllegalArgumentException("cannot sample " + k + " of " + n);
+
+        List<Item> batch = new ArrayList<Item>(k);
+        if (replacement) {
+            for (int i = 0; i < k; ++i)
+                batch.add(arr[random.nextInt(n)]);
+            return batch;
+        }
+
+        int[] swaps = new int[k];
+        for (int i = 0; i < k; ++i) {
+            int target = i + random.nextInt(n - i);
+            swaps[i] = target;
+            Item item = arr[target];
+            arr[target] = arr[i];
+            arr[i] = item;
+            batch.add(item);
+        }
+        for (int i = k -1; i >= 0; --i) {   // undo in reverse order
+            Item item = arr[swaps[i]];
+            arr[swaps[i]] = arr[i];
+            arr[i] = item;
+        }
+        return batch;
+    }
+
     /**
      * Returns an iterator to this randomized queue that iterate through 
-     * the item in random order. 
+     * the item in random order. Items are drawn lazily, so creating the
+     * iterator and taking the first k items costs O(k) time and memory.
+     * The randomized queue must not be enqueued to or dequeued from while
+     * iterating.
      * @return an iterator to this randomized queue that iterate through
      *         the item in random order 
      */
@@ -116,29 +266,67 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         arr = tmp;
     }
 
-    // an iterator, doesn't implement remove() since it's optional
+    // an iterator, doesn't implement remove() since it's optional;
+    // runs Fisher-Yates over the indices [0, n) without materializing
+    // them, recording only positions whose index was swapped away
     private class RandomizedQueueIterator implements Iterator<Item> {
-        private int cap;
-        private Item[] tmp;
-        public RandomizedQueueIterator() { 
-            cap = n;
-            tmp = (Item[]) new Object[cap];
-            for (int i = 0; i < cap; ++i)
-                tmp[i] = arr[i];
-        }
+        private final int expected = modCount;
+        private final SwapTable swaps = new SwapTable();
+        private int cap = n;
 
         public boolean hasNext()    {  return cap > 0; }
         public void remove()        {  throw new UnsupportedOperationException();  }
 
         public Item next() {
+            if (modCount != expected)
+                throw new ConcurrentModificationException();
             if (!hasNext())
                 throw new NoSuchElementException();
             int target = StdRandom.uniform(cap);
-            Item item = tmp[target];
-            tmp[target] = tmp[cap -1];
-            tmp[cap -1] = null;
+            int index = swaps.get(target);
+            swaps.put(target, swaps.get(cap -1));
             --cap;
-            return item;
+            return arr[index];
+        }
+    }
+
+    // open-addressing int to int map, a missing position maps to itself
+    private static class SwapTable {
+        private int[] keys = new int[16];   // position + 1, 0 if empty
+        private int[] vals = new int[16];
+        private int size;
+
+        int get(int key) {
+            int mask = keys.length -1;
+            for (int i = hash(key) & mask; keys[i] != 0; i = (i +1) & mask)
+                if (keys[i] == key +1)  return vals[i];
+            return key;
+        }
+
+        void put(int key, int val) {
+            if (2 * (size +1) > keys.length)    grow();
+            int mask = keys.length -1;
+            int i = hash(key) & mask;
+            while (keys[i] != 0 && keys[i] != key +1)
+                i = (i +1) & mask;
+            if (keys[i] == 0)   ++size;
+            keys[i] = key +1;
+            vals[i] = val;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            int[] oldVals = vals;
+            keys = new int[2 * oldKeys.length];
+            vals = new int[2 * oldVals.length];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; ++i)
+                if (oldKeys[i] != 0)    put(oldKeys[i] -1, oldVals[i]);
+        }
+
+        private static int hash(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
         }
     }
 
@@ -0,0 +1,464 @@
+/*----------------------------------------------------------------
+ *  Author:        Jyun-Sheng Kao
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Compilation:   javac-coursera SpillingDeque.java
+ *  Execution:     java-coursera SpillingDeque < input.txt
+ *  Dependencies:  StdIn.java StdOut.java
+ *
+ *  Deque that can outgrow the heap. Items sit in a linked list of
+ *  fixed-size segments; only the segments nearest each end stay in
+ *  memory. Segments further in are written through the serializer
+ *  to memory-mapped spill files, and read back, one segment ahead
+ *  in the background, as either end comes near them. A segment is
+ *  only spilled once it is a segment past that read-ahead, so an end
+ *  moving back and forth over a segment boundary does no I/O, and the
+ *  last emptied end segment is kept for reuse.
+ *
+ *  % more input.txt
+ *  <+ A <+ B >+ C >+ D <- >- <+ E
+ *
+ *  % java-coursera SpillingDeque < input.txt
+ *  B D (3 left on deque
+ *
+ *----------------------------------------------------------------*/
+
+import java.io.Closeable;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+
+import edu.princeton.cs.algs4.StdIn;
+import edu.princeton.cs.algs4.StdOut;
+
+public class SpillingDeque<Item> implements Iterable<Item>, Closeable {
+    private static final int SEGMENT = 4096;    // slots per segment
+    private static final int HOT = 2;           // segments kept in memory at each end
+    private static final int SPILL = HOT +2;    // distance from an end at which to spill,
+                                                // past the HOT ones and the one read ahead
+
+    /**
+     * Converts items to and from bytes for spill files. {@code read} may
+     * be called from a background thread while the deque is in use.
+     */
+    public interface Serializer<Item> {
+        void write(Item item, DataOutput out) throws IOException;
+        Item read(DataInput in) throws IOException;
+    }
+
+    private final Serializer<Item> serializer;
+    private final File directory;
+    private final int capacity;     // slots per segment
+    private int n;                  // number of elements on deque
+    private Segment head;           // segment holding the first item
+    private Segment tail;           // segment holding the last item
+    private Segment spare;          // emptied end segment kept for reuse
+
+    // helper linked list class
+    private class Segment {
+        private Item[] items;       // null while spilled
+        private int lo;             // items occupy [lo, hi)
+        private int hi;
+        private File file;          // spill file while spilled
+        private CompletableFuture<Item[]> pending;  // read-back in flight
+        private Segment next;
+        private Segment prev;
+
+        Segment(int at) {
+            items = (Item[]) new Object[capacity];
+            lo = at;
+            hi = at;
+        }
+    }
+
+    /**
+     * Initializes an empty deque spilling to the default temporary-file
+     * directory.
+     *
+     * @param  serializer converts items to and from bytes
+     * @throws IllegalArgumentException if {@code serializer} is null
+     */
+    public SpillingDeque(Serializer<Item> serializer) {
+        this(serializer, null);
+    }
+
+    /**
+     * Initializes an empty deque spilling to the given directory.
+     *
+     * @param  serializer converts items to and from bytes
+     * @param  directory where to create spill files, or null for the
+     *         default temporary-file directory
+     * @throws IllegalArgumentException if {@code serializer} is null
+     */
+    public SpillingDeque(Serializer<Item> serializer, File directory) {
+        this(serializer, directory, SEGMENT);
+    }
+
+    // with given segment size, small ones make spilling easy to test
+    SpillingDeque(Serializer<Item> serializer, File directory, int capacity) {
+        if (serializer == null)
+            throw new IllegalArgumentException("serializer is null");
+        if (capacity < 2)
+            throw new IllegalArgumentException("segment too small");
+        this.serializer = serializer;
+        this.directory = directory;
+        this.capacity = capacity;
+        head = new Segment(capacity /2);
+        tail = head;
+        n = 0;
+    }
+
+    /**
+     * Is this deque empty?
+     *
+     * @return true if this deque is empty; false otherwise
+     */
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    /**
+     * Returns the number of items in the deque.
+     *
+     * @return the number of items in the deque
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Adds the item to the front of this deque.
+     *
+     * @param item the item to add
+     * @throws java.lang.IllegalArgumentException if the item is null
+     * @throws java.io.UncheckedIOException if a segment cannot be spilled
+     */
+    public void addFirst(Item item) {
+        if (item == null)
+            throw new IllegalArgumentException("item is null");
+
+        if (head.lo == 0) {
+            Segment segment = newSegment(capacity);
+            segment.next = head;
+            head.prev = segment;
+            head = segment;
+            spill(step(head, SPILL, true), tail);
+        }
+        head.items[--head.lo] = item;
+        ++n;
+    }
+
+    /**
+     * Adds the item to the end of this deque.
+     *
+     * @param item the item to add
+     * @throws java.lang.IllegalArgumentException if the item is null
+     * @throws java.io.UncheckedIOException if a segment cannot be spilled
+     */
+    public void addLast(Item item) {
+        if (item == null)
+            throw new IllegalArgumentException("item is null");
+
+        if (tail.hi == capacity) {
+            Segment segment = newSegment(0);
+            segment.prev = tail;
+            tail.next = segment;
+            tail = segment;
+            spill(step(tail, SPILL, false), head);
+        }
+        tail.items[tail.hi++] = item;
+        ++n;
+    }
+
+    /**
+     * Removes and returns the item most recently added to the front of this
+     * deque.
+     *
+     * @return the item most recently added to the front of deque
+     * @throws java.util.NoSuchElementException if this deque is empty
+     * @throws java.io.UncheckedIOException if a segment cannot be read back
+     */
+    public Item removeFirst() {
+        if (isEmpty())
+            throw new NoSuchElementException("Deque underflow");
+
+        Item item = head.items[head.lo];
+        head.items[head.lo++] = null;   // avoid loitering
+        --n;
+
+        if (head.lo == head.hi) {
+            if (head == tail) {         // recenter so both ends have room
+                head.lo = capacity /2;
+                head.hi = capacity /2;
+            } else {
+                Segment empty = head;
+                head = head.next;
+                head.prev = null;
+                recycle(empty);
+                warm(head, true);
+            }
+        }
+        return item;
+    }
+
+    /**
+     * Removes and returns the item most recently added to the end of this
+     * deque.
+     *
+     * @return the item most recently added to the end of deque
+     * @throws java.util.NoSuchElementException if this deque is empty
+     * @throws java.io.UncheckedIOException if a segment cannot be read back
+     */
+    public Item removeLast() {
+        if (isEmpty())
+            throw new NoSuchElementException("Deque underflow");
+
+        Item item = tail.items[--tail.hi];
+        tail.items[tail.hi] = null;     // avoid loitering
+        --n;
+
+        if (tail.lo == tail.hi) {
+            if (head == tail) {         // recenter so both ends have room
+                tail.lo = capacity /2;
+                tail.hi = capacity /2;
+            } else {
+                Segment empty = tail;
+                tail = tail.prev;
+                tail.next = null;
+                recycle(empty);
+                warm(tail, false);
+            }
+        }
+        return item;
+    }
+
+    /**
+     * Returns an iterator to this deque that iterates through the items from
+     * head to tail. Spilled segments are read into a temporary copy, so
+     * iterating does not pull the whole deque into memory. The deque must
+     * not be modified while iterating.
+     *
+     * @return an iterator to this deque that iterates through the items from
+     *         head to tail
+     */
+    public Iterator<Item> iterator() {
+        return new DequeIterator();
+    }
+
+    /**
+     * Deletes all spill files. The deque must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        for (Segment s = head; s != null; s = s.next) {
+            if (s.pending != null)  s.pending.join();
+            if (s.file != null)     s.file.delete();
+        }
+    }
+
+    // the spare segment if there is one, a new segment otherwise; its
+    // items start at at
+    private Segment newSegment(int at) {
+        if (spare == null)
+            return new Segment(at);
+        Segment segment = spare;
+        spare = null;
+        segment.lo = at;
+        segment.hi = at;
+        return segment;
+    }
+
+    // keep an emptied, resident end segment unless one is already kept
+    private void recycle(Segment segment) {
+        segment.next = null;
+        segment.prev = null;
+        if (spare == null)  spare = segment;
+    }
+
+    // the segment steps links away from s, or null if there is none
+    private Segment step(Segment s, int steps, boolean forward) {
+        for (int i = 0; i < steps && s != null; ++i)
+            s = forward ? s.next : s.prev;
+        return s;
+    }
+
+    // whether s is among the first HOT + 1 segments counted from end
+    private boolean near(Segment s, Segment end) {
+        boolean forward = end == head;
+        Segment t = end;
+        for (int i = 0; i <= HOT && t != null; ++i, t = forward ? t.next : t.prev)
+            if (t == s)     return true;
+        return false;
+    }
+
+    // write segment s out unless it is missing, already out, or near other
+    private void spill(Segment s, Segment other) {
+        if (s == null || near(s, other))    return;
+        if (s.pending != null)  load(s);    // being read back, finish first
+        if (s.items == null)    return;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        File file = null;
+        try {
+            for (int i = s.lo; i < s.hi; ++i)
+                serializer.write(s.items[i], out);
+            out.flush();
+            byte[] data = bytes.toByteArray();
+
+            file = File.createTempFile("deque", ".seg", directory);
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, data.length).put(data);
+            }
+        } catch (IOException e) {
+            if (file != null)   file.delete();
+            throw new UncheckedIOException(e);
+        }
+        s.file = file;
+        s.items = null;
+    }
+
+    // make the HOT segments from s inward resident, and start reading
+    // back the one after them
+    private void warm(Segment s, boolean forward) {
+        for (int i = 0; i < HOT && s != null; ++i) {
+            load(s);
+            s = forward ? s.next : s.prev;
+        }
+        if (s != null && s.items == null && s.pending == null) {
+            final File file = s.file;
+            final int lo = s.lo;
+            final int hi = s.hi;
+            s.pending = CompletableFuture.supplyAsync(() -> read(file, lo, hi));
+        }
+    }
+
+    // make segment s resident, deleting its spill file
+    private void load(Segment s) {
+        if (s.items != null)    return;
+        try {
+            s.items = s.pending != null ? s.pending.join() : read(s.file, s.lo, s.hi);
+        } catch (java.util.concurrent.CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException)
+                throw (UncheckedIOException) e.getCause();
+            throw e;
+        }
+        s.pending = null;
+        s.file.delete();
+        s.file = null;
+    }
+
+    // items [lo, hi) of a segment from its spill file
+    private Item[] read(File file, int lo, int hi) {
+        Item[] items = (Item[]) new Object[capacity];
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            FileChannel channel = raf.getChannel();
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            DataInputStream in = new DataInputStream(new BufferInput(buffer));
+            for (int i = lo; i < hi; ++i)
+                items[i] = serializer.read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return items;
+    }
+
+    // reads a mapped buffer without copying it to the heap first
+    private static class BufferInput extends InputStream {
+        private final ByteBuffer buffer;
+
+        BufferInput(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0)   return 0;
+            if (!buffer.hasRemaining())     return -1;
+            len = Math.min(len, buffer.remaining());
+            buffer.get(b, off, len);
+            return len;
+        }
+    }
+
+    // an iterator, doesn't implement remove() since it's optional
+    private class DequeIterator implements Iterator<Item> {
+        private Segment current = head;
+        private Item[] items = head.items;
+        private int index = head.lo;
+        private int left = n;
+
+        public boolean hasNext() {
+            return left > 0;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        public Item next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            if (index == current.hi) {
+                current = current.next;
+                index = current.lo;
+                if (current.items != null)          items = current.items;
+                else if (current.pending != null)   items = current.pending.join();
+                else    items = read(current.file, current.lo, current.hi);
+            }
+            --left;
+            return items[index++];
+        }
+    }
+
+    /**
+     * Unit tests the {@code SpillingDeque} data type.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        Serializer<String> utf = new Serializer<String>() {
+            public void write(String item, DataOutput out) throws IOException {
+                out.writeUTF(item);
+            }
+
+            public String read(DataInput in) throws IOException {
+                return in.readUTF();
+            }
+        };
+        try (SpillingDeque<String> deque = new SpillingDeque<String>(utf)) {
+            while (!StdIn.isEmpty()) {
+                String cmd = StdIn.readString();
+                if (cmd.equals("<-"))
+                    StdOut.print(deque.removeLast() + " ");
+                else if (cmd.equals(">-"))
+                    StdOut.print(deque.removeFirst() + " ");
+                else if (cmd.equals("<+")) {
+                    String item = StdIn.readString();
+                    deque.addLast(item);
+                } else if (cmd.equals(">+")) {
+                    String item = StdIn.readString();
+                    deque.addFirst(item);
+                }
+            }
+            StdOut.println("(" + deque.size() + " left on deque");
+        }
+    }
+}
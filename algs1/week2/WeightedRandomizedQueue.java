@@ -0,0 +1,251 @@
+/*----------------------------------------------------------------
+ *  Author:        Jyun-Sheng Kao
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Compilation:   javac-coursera WeightedRandomizedQueue.java
+ *  Execution:     java-coursera WeightedRandomizedQueue < input.txt
+ *  Dependencies:  StdIn.java StdOut.java StdRandom.java
+ *
+ *  Randomized queue whose items are drawn with probability
+ *  proportional to their weight. A Fenwick tree over the weights
+ *  makes enqueue, dequeue and sample O(log n); freezing the queue
+ *  builds an alias table that samples in O(1) until the next change.
+ *
+ *  % more input.txt
+ *  A 1 B 1 C 8 - D 1 - - E 1
+ *
+ *  % java-coursera WeightedRandomizedQueue < input.txt
+ *  C A D (2 left on weighted randomized queue
+ *
+ *----------------------------------------------------------------*/
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import edu.princeton.cs.algs4.StdIn;
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdRandom;
+
+public class WeightedRandomizedQueue<Item> {
+    private Item[] arr;         // array of items
+    private double[] weight;    // weight[i] is the weight of arr[i]
+    private double[] tree;      // Fenwick tree over weight, 1-based
+    private int n;              // number of elements in randomized queue
+    private int updates;        // tree updates since the last rebuild
+
+    private double[] prob;      // alias table while frozen, null otherwise
+    private int[] alias;
+
+    /**
+     * Initializes an empty weighted randomized queue.
+     */
+    public WeightedRandomizedQueue() {
+        arr = (Item[]) new Object[2];
+        weight = new double[2];
+        tree = new double[3];
+        n = 0;
+    }
+
+    /**
+     * Is this randomized queue empty?
+     * @return true if this randomized queue is empty; false otherwize
+     */
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    /**
+     * Returns the number of items in the randomized queue.
+     * @return the number of items in the randomized queue
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Adds the item with the given weight to this randomized queue
+     * @param item the item to add
+     * @param w the weight of the item
+     * @throws java.lang.IllegalArgumentException if the item is null or
+     *         the weight is not positive and finite
+     */
+    public void enqueue(Item item, double w) {
+        if (item == null)
+            throw new IllegalArgumentException("item is null");
+        if (!(w > 0) || Double.isInfinite(w))
+            throw new IllegalArgumentException("weight must be positive and finite");
+
+        prob = null;
+        if (n == arr.length)    // double size of array if necessary
+            resize(arr.length * 2);
+        arr[n] = item;
+        weight[n] = w;
+        add(n, w);
+        ++n;
+        settle();
+    }
+
+    /**
+     * Removes and returns an item, drawn with probability proportional to
+     * its weight.
+     * @return the item in the randomized queue
+     * @throws java.util.NoSuchElementException if this randomized queue
+     *         is empty
+     */
+    public Item dequeue() {
+        if (isEmpty())
+            throw new NoSuchElementException("Randomized queue underflow");
+
+        prob = null;
+        int target = draw();
+        Item item = arr[target];
+        int last = n -1;
+        double removed = weight[target];
+        double moved = weight[last];
+        // move the last item into the hole, data first, then the tree
+        arr[target] = arr[last];
+        weight[target] = moved;
+        arr[last] = null;
+        weight[last] = 0.0;
+        if (target != last)     add(target, moved - removed);
+        add(last, -moved);
+        --n;
+
+        // shrink size of array if necessary
+        if (n > 0 && n == arr.length /4) resize(arr.length /2);
+        settle();
+        return item;
+    }
+
+    /**
+     * Returns (but does not remove) an item, drawn with probability
+     * proportional to its weight. Takes O(1) while frozen.
+     * @return the item in the randomized queue
+     * @throws java.util.NoSuchElementException if this randomized queue
+     *         is empty
+     */
+    public Item sample() {
+        if (isEmpty())
+            throw new NoSuchElementException("");
+        if (prob != null) {
+            int i = StdRandom.uniform(n);
+            return arr[StdRandom.uniform() < prob[i] ? i : alias[i]];
+        }
+        return arr[draw()];
+    }
+
+    /**
+     * Builds an alias table over the current weights (Vose's method), so
+     * that {@link #sample()} takes O(1) until the next enqueue or dequeue.
+     */
+    public void freeze() {
+        if (prob != null)   return;
+        double[] p = new double[n];
+        int[] a = new int[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int ns = 0;
+        int nl = 0;
+
+        double total = 0.0;
+        for (int i = 0; i < n; ++i)
+            total += weight[i];
+        for (int i = 0; i < n; ++i) {
+            p[i] = weight[i] * n / total;
+            if (p[i] < 1.0)     small[ns++] = i;
+            else                large[nl++] = i;
+        }
+        while (ns > 0 && nl > 0) {
+            int s = small[--ns];
+            int l = large[--nl];
+            a[s] = l;
+            p[l] = (p[l] + p[s]) - 1.0;
+            if (p[l] < 1.0)     small[ns++] = l;
+            else                large[nl++] = l;
+        }
+        // leftovers are 1 up to rounding
+        while (nl > 0)  p[large[--nl]] = 1.0;
+        while (ns > 0)  p[small[--ns]] = 1.0;
+
+        prob = p;
+        alias = a;
+    }
+
+    // index drawn with probability proportional to its weight
+    private int draw() {
+        double x = StdRandom.uniform() * prefix(n);
+        int pos = 0;    // number of leading items whose weight sum <= x
+        for (int step = Integer.highestOneBit(tree.length -1); step > 0; step >>= 1) {
+            if (pos + step < tree.length && tree[pos + step] <= x) {
+                pos += step;
+                x -= tree[pos];
+            }
+        }
+        return Math.min(pos, n -1);     // rounding may run past the end
+    }
+
+    // sum of weight[0, i)
+    private double prefix(int i) {
+        double sum = 0.0;
+        for (; i > 0; i -= i & -i)
+            sum += tree[i];
+        return sum;
+    }
+
+    // weight[i] grew by delta
+    private void add(int i, double delta) {
+        for (int j = i +1; j < tree.length; j += j & -j)
+            tree[j] += delta;
+        ++updates;
+    }
+
+    // rebuild now and then so rounding errors cannot pile up; called once
+    // weight and tree agree again, at the end of each change
+    private void settle() {
+        if (updates > tree.length)  rebuild();
+    }
+
+    // rebuild the tree from weight in linear time
+    private void rebuild() {
+        Arrays.fill(tree, 0.0);
+        for (int i = 1; i < tree.length; ++i) {
+            tree[i] += weight[i -1];
+            int j = i + (i & -i);
+            if (j < tree.length)    tree[j] += tree[i];
+        }
+        updates = 0;
+    }
+
+    // resize the underlying arrays holding the elements
+    private void resize(int capacity) {
+        assert capacity >= n;
+
+        Item[] tmp = (Item[]) new Object[capacity];
+        double[] tmpWeight = new double[capacity];
+        for (int i = 0; i < n; ++i) {
+            tmp[i] = arr[i];
+            tmpWeight[i] = weight[i];
+        }
+        arr = tmp;
+        weight = tmpWeight;
+        tree = new double[capacity +1];
+        rebuild();
+    }
+
+    /**
+     * Unit tests the {@code WeightedRandomizedQueue} data type
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        WeightedRandomizedQueue<String> rq = new WeightedRandomizedQueue<String>();
+        while (!StdIn.isEmpty()) {
+            String item = StdIn.readString();
+            if (!item.equals("-"))  rq.enqueue(item, Double.parseDouble(StdIn.readString()));
+            else                    StdOut.print(rq.dequeue() + " ");
+        }
+
+        StdOut.println("(" + rq.size() + " left on weighted randomized queue");
+    }
+}
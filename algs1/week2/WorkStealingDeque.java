@@ -0,0 +1,288 @@
+/*----------------------------------------------------------------
+ *  Author:        Jyun-Sheng Kao
+ *  Written:       10/18/2026
+ *  Last updated:  10/18/2026
+ *
+ *  Compilation:   javac-coursera WorkStealingDeque.java
+ *  Execution:     java-coursera WorkStealingDeque [#thieves [#items]]
+ *  Dependencies:  StdOut.java
+ *
+ *  Chase-Lev work-stealing deque on a growable circular array. One
+ *  owner thread pushes and pops at the end with plain volatile
+ *  reads and writes, any number of thieves take from the front with
+ *  a compare-and-set on the top index. The only contended case is
+ *  the owner and a thief racing for the last item.
+ *
+ *  main() runs a stress test, checking every pushed item is taken
+ *  exactly once, then times the same workload against
+ *  java.util.concurrent.ConcurrentLinkedDeque.
+ *
+ *  % java-coursera WorkStealingDeque 3 1000000
+ *  stress: 1000000 items, 3 thieves, ok
+ *  WorkStealingDeque      : 54 ms
+ *  ConcurrentLinkedDeque  : 106 ms
+ *
+ *----------------------------------------------------------------*/
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import edu.princeton.cs.algs4.StdOut;
+
+public class WorkStealingDeque<Item> {
+    private static final int MIN_CAPACITY = 32;     // power of two
+
+    private volatile CircularArray<Item> array;
+    private volatile long bottom;   // next slot the owner pushes to
+    private final AtomicLong top;   // next slot thieves take from
+
+    // circular array indexed by the ever-growing top/bottom counters
+    private static class CircularArray<Item> {
+        private final AtomicReferenceArray<Item> items;
+        private final int mask;
+
+        CircularArray(int capacity) {
+            items = new AtomicReferenceArray<Item>(capacity);
+            mask = capacity -1;
+        }
+
+        int capacity() {
+            return mask +1;
+        }
+
+        Item get(long i) {
+            return items.get((int) i & mask);
+        }
+
+        void put(long i, Item item) {
+            items.set((int) i & mask, item);
+        }
+
+        // copy of slots [t, b) into an array twice as large
+        CircularArray<Item> grow(long t, long b) {
+            CircularArray<Item> a = new CircularArray<Item>(2 * capacity());
+            for (long i = t; i < b; ++i)
+                a.put(i, get(i));
+            return a;
+        }
+    }
+
+    /**
+     * Initializes an empty deque.
+     */
+    public WorkStealingDeque() {
+        array = new CircularArray<Item>(MIN_CAPACITY);
+        bottom = 0;
+        top = new AtomicLong(0);
+    }
+
+    /**
+     * Is this deque empty? Exact only when no other thread is using it.
+     *
+     * @return true if this deque is empty; false otherwise
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns the number of items in the deque. Exact only when no other
+     * thread is using it.
+     *
+     * @return the number of items in the deque
+     */
+    public int size() {
+        long t = top.get();
+        long b = bottom;
+        return (int) Math.max(0, b - t);
+    }
+
+    /**
+     * Adds the item to the end of this deque. Owner thread only.
+     *
+     * @param item the item to add
+     * @throws java.lang.IllegalArgumentException if the item is null
+     */
+    public void addLast(Item item) {
+        if (item == null)
+            throw new IllegalArgumentException("item is null");
+
+        long b = bottom;
+        long t = top.get();
+        CircularArray<Item> a = array;
+        if (b - t >= a.capacity()) {
+            a = a.grow(t, b);
+            array = a;
+        }
+        a.put(b, item);
+        bottom = b +1;  // publishes the item to thieves
+    }
+
+    /**
+     * Removes and returns the item most recently added to the end of this
+     * deque. Owner thread only.
+     *
+     * @return the item most recently added to the end of deque
+     * @throws java.util.NoSuchElementException if this deque is empty
+     */
+    public Item removeLast() {
+        long b = bottom -1;
+        CircularArray<Item> a = array;
+        bottom = b;     // claim slot b before looking at top
+        long t = top.get();
+        if (b < t) {    // empty
+            bottom = t;
+            throw new NoSuchElementException("Deque underflow");
+        }
+
+        Item item = a.get(b);
+        if (b > t) {    // no thief can reach slot b
+            a.put(b, null);     // avoid loitering
+            return item;
+        }
+
+        // last item: race the thieves for it
+        boolean won = top.compareAndSet(t, t +1);
+        bottom = t +1;
+        if (!won)
+            throw new NoSuchElementException("Deque underflow");
+        a.put(b, null);
+        return item;
+    }
+
+    /**
+     * Removes and returns the item least recently added to the end of this
+     * deque. Any thread may steal; retries while losing races with other
+     * thieves.
+     *
+     * @return the oldest item on the deque
+     * @throws java.util.NoSuchElementException if this deque is empty
+     */
+    public Item removeFirst() {
+        while (true) {
+            long t = top.get();     // read top before bottom
+            long b = bottom;
+            if (t >= b)
+                throw new NoSuchElementException("Deque underflow");
+            Item item = array.get(t);
+            if (top.compareAndSet(t, t +1))
+                return item;
+        }
+    }
+
+    // owner pushes items and pops every third one, thieves steal the rest;
+    // returns elapsed nanoseconds
+    private static long stress(int thieves, final int items, boolean check) throws InterruptedException {
+        final WorkStealingDeque<Integer> deque = new WorkStealingDeque<Integer>();
+        final AtomicIntegerArray taken = new AtomicIntegerArray(items);
+        final AtomicLong remaining = new AtomicLong(items);
+        Integer[] boxed = new Integer[items];
+        for (int i = 0; i < items; ++i)
+            boxed[i] = i;
+
+        Thread[] workers = new Thread[thieves];
+        for (int i = 0; i < thieves; ++i) {
+            workers[i] = new Thread(() -> {
+                while (remaining.get() > 0) {
+                    try {
+                        Integer x = deque.removeFirst();
+                        taken.incrementAndGet(x);
+                        remaining.decrementAndGet();
+                    } catch (NoSuchElementException e) {
+                        Thread.yield();
+                    }
+                }
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread worker : workers)   worker.start();
+        for (int i = 0; i < items; ++i) {
+            deque.addLast(boxed[i]);
+            if (i % 3 == 2) {
+                try {
+                    Integer x = deque.removeLast();
+                    taken.incrementAndGet(x);
+                    remaining.decrementAndGet();
+                } catch (NoSuchElementException e) {
+                    // thieves emptied it first
+                }
+            }
+        }
+        while (remaining.get() > 0) {
+            try {
+                Integer x = deque.removeLast();
+                taken.incrementAndGet(x);
+                remaining.decrementAndGet();
+            } catch (NoSuchElementException e) {
+                Thread.yield();
+            }
+        }
+        for (Thread worker : workers)   worker.join();
+        long elapsed = System.nanoTime() - start;
+
+        if (check) {
+            for (int i = 0; i < items; ++i)
+                if (taken.get(i) != 1)
+                    throw new AssertionError("item " + i + " taken " + taken.get(i) + " times");
+        }
+        return elapsed;
+    }
+
+    // same workload on ConcurrentLinkedDeque; returns elapsed nanoseconds
+    private static long baseline(int thieves, final int items) throws InterruptedException {
+        final ConcurrentLinkedDeque<Integer> deque = new ConcurrentLinkedDeque<Integer>();
+        final AtomicLong remaining = new AtomicLong(items);
+        Integer[] boxed = new Integer[items];
+        for (int i = 0; i < items; ++i)
+            boxed[i] = i;
+
+        Thread[] workers = new Thread[thieves];
+        for (int i = 0; i < thieves; ++i) {
+            workers[i] = new Thread(() -> {
+                while (remaining.get() > 0) {
+                    if (deque.pollFirst() != null)  remaining.decrementAndGet();
+                    else                            Thread.yield();
+                }
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread worker : workers)   worker.start();
+        for (int i = 0; i < items; ++i) {
+            deque.addLast(boxed[i]);
+            if (i % 3 == 2 && deque.pollLast() != null)
+                remaining.decrementAndGet();
+        }
+        while (remaining.get() > 0) {
+            if (deque.pollLast() != null)   remaining.decrementAndGet();
+            else                            Thread.yield();
+        }
+        for (Thread worker : workers)   worker.join();
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Stress tests the {@code WorkStealingDeque} data type and compares
+     * it with {@code ConcurrentLinkedDeque}.
+     *
+     * @param args the number of thieves and the number of items
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int thieves = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        int items = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+
+        for (int round = 0; round < 5; ++round)
+            stress(thieves, items, true);
+        StdOut.println("stress: " + items + " items, " + thieves + " thieves, ok");
+
+        // warm up both before timing
+        for (int round = 0; round < 3; ++round) {
+            stress(thieves, items, false);
+            baseline(thieves, items);
+        }
+        StdOut.println("WorkStealingDeque      : " + stress(thieves, items, false) / 1000000 + " ms");
+        StdOut.println("ConcurrentLinkedDeque  : " + baseline(thieves, items) / 1000000 + " ms");
+    }
+}
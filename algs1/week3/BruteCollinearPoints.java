@@ -1,48 +1,39 @@
 import java.util.ArrayList;
 
 public class BruteCollinearPoints {
-    private static final double EPS = 1e-10;
-
     private final int numOfSegments;
     private final ArrayList<LineSegment> res;
 
     public BruteCollinearPoints(Point[] points) {
+        this(new PointArray(points));
+    }
+
+    public BruteCollinearPoints(PointArray points) {
         if (points == null)
             throw new java.lang.IllegalArgumentException("");
 
         res = new ArrayList<LineSegment>();
-        int n = points.length;
-        for (int pi = 0; pi < n; ++pi) {
-            Point p = points[pi];
-            if (p == null)  
-                throw new java.lang.IllegalArgumentException("");
-            for (int qi = pi +1; qi < n; ++qi) {
-                Point q = points[qi];
-                if (q == null)
-                    throw new java.lang.IllegalArgumentException("");
-                if (p.compareTo(q) == 0)
+        int n = points.size();
+        for (int p = 0; p < n; ++p) {
+            for (int q = p +1; q < n; ++q) {
+                if (points.compare(p, q) == 0)
                     throw new java.lang.IllegalArgumentException("");
 
-                for (int ri = qi +1; ri < n; ++ri) {
-                    Point r = points[ri];
-                    if (r == null)
+                for (int r = q +1; r < n; ++r) {
+                    if (points.compare(p, r) == 0 || points.compare(q, r) == 0)
                         throw new java.lang.IllegalArgumentException("");
-                    if (p.compareTo(r) == 0 || q.compareTo(r) == 0)
-                        throw new java.lang.IllegalArgumentException("");
-                    
-                    for (int si = ri +1; si < n; ++si) {
-                        Point s = points[si];
-                        if (s == null)
-                            throw new java.lang.IllegalArgumentException("");
-                        if (p.compareTo(s) == 0)
+                    boolean pqr = collinear(points, p, q, r);
+
+                    for (int s = r +1; s < n; ++s) {
+                        if (points.compare(p, s) == 0)
                             throw new java.lang.IllegalArgumentException("");
-                        if (q.compareTo(s) == 0)
+                        if (points.compare(q, s) == 0)
                             throw new java.lang.IllegalArgumentException("");
-                        if (r.compareTo(s) == 0)
+                        if (points.compare(r, s) == 0)
                             throw new java.lang.IllegalArgumentException("");
 
-                        if (sameLine(p, q, r, s)) 
-                            res.add(buildLineSegment(p, q, r, s));
+                        if (pqr && collinear(points, p, q, s))
+                            res.add(buildLineSegment(points, p, q, r, s));
                     }
                 }
             }
@@ -60,28 +51,28 @@ public class BruteCollinearPoints {
         return tmp;
     }
 
-    private boolean sameLine(Point p, Point q, Point r, Point s) {
-        if (p.slopeTo(q) == Double.POSITIVE_INFINITY
-                && q.slopeTo(r) == Double.POSITIVE_INFINITY
-                && r.slopeTo(s) == Double.POSITIVE_INFINITY)
-            return true;
-
-        else
-            return Math.abs(p.slopeTo(q) - q.slopeTo(r)) < EPS 
-                    && Math.abs(q.slopeTo(r) - r.slopeTo(s)) < EPS;
+    // (q - p) x (r - p) == 0; the differences take 33 bits, so the
+    // products are compared in full 128 bits
+    private boolean collinear(PointArray points, int p, int q, int r) {
+        long dx1 = (long) points.x(q) - points.x(p);
+        long dy1 = (long) points.y(q) - points.y(p);
+        long dx2 = (long) points.x(r) - points.x(p);
+        long dy2 = (long) points.y(r) - points.y(p);
+        return dx1 * dy2 == dy1 * dx2
+                && Math.multiplyHigh(dx1, dy2) == Math.multiplyHigh(dy1, dx2);
     }
 
-    private LineSegment buildLineSegment(Point p, Point q, Point r, Point s) {
-        Point minP = p;
-        Point maxP = p;
-        if (q.compareTo(minP) < 0)  minP = q;
-        if (r.compareTo(minP) < 0)  minP = r;
-        if (s.compareTo(minP) < 0)  minP = s;
+    private LineSegment buildLineSegment(PointArray points, int p, int q, int r, int s) {
+        int minP = p;
+        int maxP = p;
+        if (points.compare(q, minP) < 0)  minP = q;
+        if (points.compare(r, minP) < 0)  minP = r;
+        if (points.compare(s, minP) < 0)  minP = s;
 
-        if (q.compareTo(maxP) > 0)  maxP = q;
-        if (r.compareTo(maxP) > 0)  maxP = r;
-        if (s.compareTo(maxP) > 0)  maxP = s;
+        if (points.compare(q, maxP) > 0)  maxP = q;
+        if (points.compare(r, maxP) > 0)  maxP = r;
+        if (points.compare(s, maxP) > 0)  maxP = s;
 
-        return new LineSegment(minP, maxP);
+        return new LineSegment(points.point(minP), points.point(maxP));
     }
 }
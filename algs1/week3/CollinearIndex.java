@@ -0,0 +1,254 @@
+/******************************************************************************
+ *  Compilation:  javac CollinearIndex.java
+ *  Execution:    java CollinearIndex < input.txt
+ *  Dependencies: Point.java LineSegment.java StdIn.java StdOut.java
+ *
+ *  Finds the line segments of 4 or more collinear points as the points
+ *  arrive one at a time. Every line through two of the points is kept
+ *  under an exact key, its reduced direction and intercept, with the
+ *  number of points on it and its two extreme points. Adding a point
+ *  looks up the line to each earlier point, O(n) expected time, and
+ *  the index holds O(n^2) lines.
+ *
+ *  % more input.txt
+ *  5
+ *  0 0  1 1  2 2  3 3  4 4
+ *
+ *  % java CollinearIndex < input.txt
+ *  new      (0, 0) -> (3, 3)
+ *  extended (0, 0) -> (4, 4)
+ *
+ ******************************************************************************/
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import edu.princeton.cs.algs4.StdIn;
+import edu.princeton.cs.algs4.StdOut;
+
+public class CollinearIndex {
+    /**
+     * Receives the segments of an index as they appear or grow.
+     */
+    public interface Listener {
+        /**
+         * Called when a line reaches 4 points, with previous null, or when
+         * a point beyond either end of a segment extends it.
+         *
+         * @param segment the new segment
+         * @param previous the segment it replaces, null if there is none
+         */
+        void segmentChanged(LineSegment segment, LineSegment previous);
+    }
+
+    private final Listener listener;                // null if none
+    private final HashMap<LineKey, Line> lines;     // every line through 2 points
+    private final ArrayList<Line> segmentLines;     // lines of 4+ points, in order found
+    private final HashSet<Long> seen;               // packed coordinates, for duplicates
+    private Point[] points;
+    private int n;
+
+    // exact key of a line: direction (dy, dx) reduced with dx > 0, or dx == 0
+    // and dy == 1, and intercept dx*y - dy*x in 128 bits
+    private static class LineKey {
+        private final long dy;
+        private final long dx;
+        private final long cHi;
+        private final long cLo;
+
+        LineKey(Point p, Point q) {
+            long ddy = (long) q.y() - p.y();
+            long ddx = (long) q.x() - p.x();
+            long g = gcd(Math.abs(ddy), Math.abs(ddx));
+            ddy /= g;
+            ddx /= g;
+            if (ddx < 0 || (ddx == 0 && ddy < 0)) {
+                ddy = -ddy;
+                ddx = -ddx;
+            }
+            dy = ddy;
+            dx = ddx;
+
+            // each product fits in a long, their difference may not
+            long aLo = dx * p.y();
+            long bLo = dy * p.x();
+            long borrow = Long.compareUnsigned(aLo, bLo) < 0 ? 1 : 0;
+            cLo = aLo - bLo;
+            cHi = Math.multiplyHigh(dx, p.y()) - Math.multiplyHigh(dy, p.x()) - borrow;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof LineKey))
+                return false;
+            LineKey that = (LineKey) other;
+            return dy == that.dy && dx == that.dx && cHi == that.cHi && cLo == that.cLo;
+        }
+
+        @Override
+        public int hashCode() {
+            long h = dy;
+            h = h * 0x9E3779B97F4A7C15L + dx;
+            h = h * 0x9E3779B97F4A7C15L + cHi;
+            h = h * 0x9E3779B97F4A7C15L + cLo;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+
+    // the points on one line, as a count and the two extremes
+    private static class Line {
+        private int count;
+        private Point min;
+        private Point max;
+        private int stamp;              // last point added, to add it once
+        private LineSegment segment;    // current segment, null below 4 points
+
+        Line(Point p, Point q, int stamp) {
+            count = 2;
+            min = p.compareTo(q) < 0 ? p : q;
+            max = p.compareTo(q) < 0 ? q : p;
+            this.stamp = stamp;
+        }
+    }
+
+    /**
+     * Initializes an empty index.
+     */
+    public CollinearIndex() {
+        this(null);
+    }
+
+    /**
+     * Initializes an empty index that tells listener about its segments.
+     *
+     * @param listener the listener, or null
+     */
+    public CollinearIndex(Listener listener) {
+        this.listener = listener;
+        lines = new HashMap<LineKey, Line>();
+        segmentLines = new ArrayList<Line>();
+        seen = new HashSet<Long>();
+        points = new Point[2];
+        n = 0;
+    }
+
+    /**
+     * Adds the point, updating every line through it and an earlier point.
+     *
+     * @param  p the point to add
+     * @throws IllegalArgumentException if p is null or was added before
+     */
+    public void add(Point p) {
+        if (p == null)
+            throw new IllegalArgumentException("point is null");
+        if (!seen.add(((long) p.y() << 32) | (p.x() & 0xffffffffL)))
+            throw new IllegalArgumentException("duplicate point " + p);
+
+        for (int i = 0; i < n; ++i) {
+            LineKey key = new LineKey(p, points[i]);
+            Line line = lines.get(key);
+            if (line == null) {
+                // no two earlier points are on this line, so only p and points[i]
+                lines.put(key, new Line(p, points[i], n));
+            } else if (line.stamp != n) {
+                line.stamp = n;
+                extend(line, p);
+            }
+        }
+
+        if (n == points.length)
+            resize(2 * points.length);
+        points[n++] = p;
+    }
+
+    /**
+     * Returns the number of points added.
+     *
+     * @return the number of points added
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Returns the number of line segments of 4 or more points.
+     *
+     * @return the number of line segments
+     */
+    public int numberOfSegments() {
+        return segmentLines.size();
+    }
+
+    /**
+     * Returns the maximal line segments of 4 or more points, in the order
+     * their lines reached 4 points.
+     *
+     * @return the line segments
+     */
+    public LineSegment[] segments() {
+        LineSegment[] tmp = new LineSegment[segmentLines.size()];
+        for (int i = 0; i < tmp.length; ++i)
+            tmp[i] = segmentLines.get(i).segment;
+        return tmp;
+    }
+
+    // adds p to line and reports a new or longer segment
+    private void extend(Line line, Point p) {
+        ++line.count;
+        boolean moved = false;
+        if (p.compareTo(line.min) < 0) {
+            line.min = p;
+            moved = true;
+        } else if (p.compareTo(line.max) > 0) {
+            line.max = p;
+            moved = true;
+        }
+
+        if (line.count == 4) {
+            line.segment = new LineSegment(line.min, line.max);
+            segmentLines.add(line);
+            if (listener != null)
+                listener.segmentChanged(line.segment, null);
+        } else if (line.count > 4 && moved) {
+            LineSegment previous = line.segment;
+            line.segment = new LineSegment(line.min, line.max);
+            if (listener != null)
+                listener.segmentChanged(line.segment, previous);
+        }
+    }
+
+    private void resize(int capacity) {
+        Point[] tmp = new Point[capacity];
+        for (int i = 0; i < n; ++i)
+            tmp[i] = points[i];
+        points = tmp;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /**
+     * Reads n points from standard input and reports segments as they
+     * appear or grow.
+     */
+    public static void main(String[] args) {
+        CollinearIndex index = new CollinearIndex(new Listener() {
+            public void segmentChanged(LineSegment segment, LineSegment previous) {
+                StdOut.println((previous == null ? "new      " : "extended ") + segment);
+            }
+        });
+        int n = StdIn.readInt();
+        for (int i = 0; i < n; ++i) {
+            int x = StdIn.readInt();
+            int y = StdIn.readInt();
+            index.add(new Point(x, y));
+        }
+    }
+}
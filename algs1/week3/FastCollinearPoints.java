@@ -1,64 +1,79 @@
-import java.util.Arrays;
 import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class FastCollinearPoints {
-    private static final double EPS = 1e-10;
+    private static final int ORIGINS_PER_TASK = 16;    // origins run by one leaf task
+
+    /**
+     * How to group the other points by their direction from each origin.
+     * SORT radix sorts them by double slope key, O(n^2) in total. Distinct
+     * slopes can round to the same double once coordinate differences
+     * need more than 26 bits or so, e.g. 2^31/(2^31+1) and (2^31-1)/2^31;
+     * each run of equal keys is therefore checked with an exact cross
+     * product and split when it holds more than one line, which costs
+     * time quadratic in the length of such a run.
+     * HASH hashes the exact reduced direction, expected O(n^2) in total.
+     */
+    public enum Engine { SORT, HASH }
 
     private final int numOfSegments;
     private final ArrayList<LineSegment> res;
-   
+
     public FastCollinearPoints(Point[] points) {
-        if (points == null)
-            throw new java.lang.IllegalArgumentException("");
-        res = new ArrayList<LineSegment>();
+        this(points, Engine.SORT);
+    }
 
-        Point[] ppoints = points.clone();
+    public FastCollinearPoints(Point[] points, Engine engine) {
+        this(points, engine, 1);
+    }
 
-        Point cornerP = ppoints[0];
-        int n = points.length;
-        for (int i = 0; i < n; ++i) {
-            if (ppoints[i] == null)
-                throw new java.lang.IllegalArgumentException("");
+    /**
+     * Finds the segments with the origins spread over the given number of
+     * threads. Segments come out in the same order for any parallelism.
+     * The points are copied into a {@link PointArray} first.
+     */
+    public FastCollinearPoints(Point[] points, Engine engine, int parallelism) {
+        this(new PointArray(points), engine, parallelism);
+    }
 
-            if (ppoints[i].compareTo(cornerP) < 0)
-                cornerP = ppoints[i];
-        }
+    public FastCollinearPoints(PointArray points) {
+        this(points, Engine.SORT);
+    }
+
+    public FastCollinearPoints(PointArray points, Engine engine) {
+        this(points, engine, 1);
+    }
 
-        for (int i = 0; i < n; ++i) {
-            Arrays.sort(ppoints, 0, n, cornerP.slopeOrder());
-             
-            if (i > 0 && ppoints[i].compareTo(ppoints[i -1]) == 0)
+    public FastCollinearPoints(PointArray points, Engine engine, int parallelism) {
+        if (points == null || engine == null || parallelism <= 0)
+            throw new java.lang.IllegalArgumentException("");
+
+        // the one sort by compareTo: duplicates end up adjacent, and the
+        // per-origin passes rely on this order for segment endpoints
+        PointArray ppoints = points.sorted();
+        for (int i = 1; i < ppoints.size(); ++i) {
+            if (ppoints.compare(i, i -1) == 0)
                 throw new java.lang.IllegalArgumentException("");
-            Point tmp = ppoints[i];
-            ppoints[i] = ppoints[0];
-            ppoints[0] = tmp;
-          
-            Arrays.sort(ppoints, 1, n, ppoints[0].slopeOrder());
-
-            int j = 1;
-            for (int k = 2; k <= n; ++k) {
-                if (k == n || !isSameSlope(ppoints[0], ppoints[j], ppoints[k])) {
-                    if (k - j >= 3) {   // at least 4 points
-                        Point minP = ppoints[0];
-                        Point maxP = ppoints[0];
-                        boolean legal = true;
-                        for (int a = j; a < k && legal; ++a) {
-                            if (a > j && ppoints[a].compareTo(ppoints[a -1]) == 0)
-                                legal = false;
-                            minP = minP.compareTo(ppoints[a]) < 0 ? minP : ppoints[a];
-                            maxP = maxP.compareTo(ppoints[a]) > 0 ? maxP : ppoints[a];
-                        }
-                       
-                        if (legal && minP.compareTo(ppoints[0]) == 0 
-                                && maxP.compareTo(ppoints[0]) != 0) {
-                            res.add(new LineSegment(minP, maxP));
-                        }
-                    }
-
-                    j = k;
-                }           
+        }
+
+        Scratch scratch = new Scratch(ppoints.size());
+        OriginTask task = new OriginTask(ppoints, engine, scratch, 0, ppoints.size());
+        if (parallelism == 1) {
+            try {
+                task.compute();
+            } finally {
+                scratch.release();
+            }
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(task);
+            } finally {
+                pool.shutdown();
             }
         }
+        res = task.found;
 
         numOfSegments = res.size();
     }
@@ -73,11 +88,232 @@ public class FastCollinearPoints {
         return tmp;
     }
 
-    private boolean isSameSlope(Point p, Point q, Point r) {
-        if (p.slopeTo(q) == Double.POSITIVE_INFINITY 
-                && p.slopeTo(r) == Double.POSITIVE_INFINITY)
-            return true;
+    // the O(n) SlopeSort or DirectionTable that an origin pass works in,
+    // made once by each thread that runs origins and cleared by the next
+    // origin. Pool threads drop theirs when the pool shuts down; a run on
+    // the calling thread has to release its own.
+    private static class Scratch {
+        private final ThreadLocal<SlopeSort> slopes;
+        private final ThreadLocal<DirectionTable> table;
+
+        Scratch(int n) {
+            slopes = ThreadLocal.withInitial(() -> new SlopeSort(n));
+            table = ThreadLocal.withInitial(() -> new DirectionTable(n));
+        }
+
+        // drops the calling thread's buffers
+        void release() {
+            slopes.remove();
+            table.remove();
+        }
+    }
+
+    // finds the segments starting at origins [lo, hi), splitting the range
+    // in halves; the halves' segments are concatenated in origin order.
+    // Outside a pool it runs the whole range itself.
+    private static class OriginTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final PointArray ppoints;
+        private final Engine engine;
+        private final Scratch scratch;
+        private final int lo;
+        private final int hi;
+        private final ArrayList<LineSegment> found = new ArrayList<LineSegment>();
+
+        OriginTask(PointArray ppoints, Engine engine, Scratch scratch, int lo, int hi) {
+            this.ppoints = ppoints;
+            this.engine = engine;
+            this.scratch = scratch;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= ORIGINS_PER_TASK || getPool() == null) {
+                if (engine == Engine.HASH)  hashSegments(ppoints, scratch.table.get(), lo, hi, found);
+                else                        sortSegments(ppoints, scratch.slopes.get(), lo, hi, found);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            OriginTask left = new OriginTask(ppoints, engine, scratch, lo, mid);
+            OriginTask rest = new OriginTask(ppoints, engine, scratch, mid, hi);
+            invokeAll(left, rest);
+            found.addAll(left.found);
+            found.addAll(rest.found);
+        }
+    }
+
+    // per origin, radix sort all points by slope key; the origin sorts
+    // first, and since the points come in compareTo order each run of equal
+    // keys starts at its smallest point and ends at its largest. A line is
+    // reported from its smallest point only, i.e. when its run starts after
+    // the origin. A run whose points are not all on one line through the
+    // origin is split by exact direction.
+    private static void sortSegments(PointArray ppoints, SlopeSort slopes, int lo, int hi,
+                                     ArrayList<LineSegment> found) {
+        int n = ppoints.size();
+        for (int i = lo; i < hi; ++i) {
+            slopes.sort(ppoints, i);
 
-        return Math.abs(p.slopeTo(q) - p.slopeTo(r)) < EPS;
+            int k;
+            for (int j = 1; j < n; j = k) {
+                k = slopes.runEnd(j);
+                if (k - j < 3)      // fewer than 4 points
+                    continue;
+                if (!oneLine(ppoints, slopes, i, j, k))
+                    splitRun(ppoints, slopes, i, j, k, found);
+                else if (slopes.index(j) > i)
+                    found.add(new LineSegment(ppoints.point(i), ppoints.point(slopes.index(k -1))));
+            }
+        }
+    }
+
+    // are the points of ranks [j, k) all on one line through origin i?
+    private static boolean oneLine(PointArray ppoints, SlopeSort slopes, int i, int j, int k) {
+        int p = slopes.index(j);
+        for (int r = j +1; r < k; ++r) {
+            if (!collinear(ppoints, i, p, slopes.index(r)))
+                return false;
+        }
+        return true;
+    }
+
+    // reports the lines of 4+ points in ranks [j, k), whose slopes round
+    // to the same key; a line is found from its first rank in the run
+    private static void splitRun(PointArray ppoints, SlopeSort slopes, int i, int j, int k,
+                                 ArrayList<LineSegment> found) {
+        for (int a = j; a < k; ++a) {
+            int p = slopes.index(a);
+            boolean first = true;
+            for (int b = j; b < a && first; ++b)
+                first = !collinear(ppoints, i, slopes.index(b), p);
+            if (!first)
+                continue;
+
+            int count = 1;
+            int last = p;
+            for (int c = a +1; c < k; ++c) {
+                int q = slopes.index(c);
+                if (collinear(ppoints, i, p, q)) {
+                    ++count;
+                    last = q;
+                }
+            }
+            if (count >= 3 && p > i)
+                found.add(new LineSegment(ppoints.point(i), ppoints.point(last)));
+        }
+    }
+
+    // (q - p) x (r - p) == 0; the differences take 33 bits, so the
+    // products are compared in full 128 bits
+    private static boolean collinear(PointArray points, int p, int q, int r) {
+        long dx1 = (long) points.x(q) - points.x(p);
+        long dy1 = (long) points.y(q) - points.y(p);
+        long dx2 = (long) points.x(r) - points.x(p);
+        long dy2 = (long) points.y(r) - points.y(p);
+        return dx1 * dy2 == dy1 * dx2
+                && Math.multiplyHigh(dx1, dy2) == Math.multiplyHigh(dy1, dx2);
+    }
+
+    // per origin, hash the other points by their reduced direction (dy, dx),
+    // with dx > 0, or dx == 0 and dy == 1. A line is reported from its
+    // smallest point only, i.e. when no point of its group comes before
+    // the origin.
+    private static void hashSegments(PointArray ppoints, DirectionTable table, int lo, int hi,
+                                     ArrayList<LineSegment> found) {
+        int n = ppoints.size();
+        for (int i = lo; i < hi; ++i) {
+            table.clear();
+            long x0 = ppoints.x(i);
+            long y0 = ppoints.y(i);
+            for (int j = 0; j < n; ++j) {
+                if (j == i)     continue;
+                long dy = ppoints.y(j) - y0;
+                long dx = ppoints.x(j) - x0;
+                long g = gcd(Math.abs(dy), Math.abs(dx));
+                dy /= g;
+                dx /= g;
+                if (dx < 0 || (dx == 0 && dy < 0)) {
+                    dy = -dy;
+                    dx = -dx;
+                }
+                table.add(dy, dx, j);
+            }
+
+            for (int g = 0; g < table.groups; ++g) {
+                int slot = table.order[g];
+                if (table.count[slot] >= 3 && table.min[slot] > i)
+                    found.add(new LineSegment(ppoints.point(i), ppoints.point(table.max[slot])));
+            }
+        }
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    // open-addressing map from a reduced direction to how many points lie
+    // in it and the first and last of them; a reduced (dy, dx) needs 65
+    // bits, so a key is kept as two longs
+    private static class DirectionTable {
+        private final int mask;
+        private final long[] dys;
+        private final long[] dxs;
+        private final int[] stamp;  // slot is used iff stamp == epoch
+        private final int[] count;
+        private final int[] min;    // first index added, the smallest point
+        private final int[] max;    // last index added, the largest point
+        private final int[] order;  // used slots in insertion order
+        private int groups;
+        private int epoch;
+
+        DirectionTable(int n) {
+            int capacity = 2;
+            while (capacity < 2 * n)
+                capacity <<= 1;
+            mask = capacity -1;
+            dys = new long[capacity];
+            dxs = new long[capacity];
+            stamp = new int[capacity];
+            count = new int[capacity];
+            min = new int[capacity];
+            max = new int[capacity];
+            order = new int[n];
+        }
+
+        void clear() {
+            ++epoch;
+            groups = 0;
+        }
+
+        // indices must be added in increasing order
+        void add(long dy, long dx, int index) {
+            long h = dy * 0x9E3779B97F4A7C15L + dx;
+            h ^= h >>> 32;
+            h *= 0xD6E8FEB86659FD93L;
+            int slot = (int) (h ^ (h >>> 32)) & mask;
+            while (stamp[slot] == epoch) {
+                if (dys[slot] == dy && dxs[slot] == dx) {
+                    ++count[slot];
+                    max[slot] = index;
+                    return;
+                }
+                slot = (slot +1) & mask;
+            }
+            stamp[slot] = epoch;
+            dys[slot] = dy;
+            dxs[slot] = dx;
+            count[slot] = 1;
+            min[slot] = index;
+            max[slot] = index;
+            order[groups++] = slot;
+        }
     }
 }
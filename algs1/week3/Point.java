@@ -114,6 +114,16 @@ public class Point implements Comparable<Point> {
     }
 
 
+    // x-coordinate, for the exact engines of the collinear searches
+    int x() {
+        return x;
+    }
+
+    // y-coordinate, for the exact engines of the collinear searches
+    int y() {
+        return y;
+    }
+
     /**
      * Returns a string representation of this point.
      * This method is provide for debugging;
@@ -129,9 +139,11 @@ public class Point implements Comparable<Point> {
     private class SlopeComparator implements Comparator<Point> {
         @Override
         public int compare(Point p1, Point p2) {
-            if (slopeTo(p1) < slopeTo(p2))
+            double s1 = slopeTo(p1);
+            double s2 = slopeTo(p2);
+            if (s1 < s2)
                 return -1;
-            else if (slopeTo(p1) > slopeTo(p2))
+            else if (s1 > s2)
                 return 1;
             else
                 return 0;
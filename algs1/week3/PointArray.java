@@ -0,0 +1,180 @@
+/******************************************************************************
+ *  Compilation:  javac PointArray.java
+ *  Execution:    none
+ *  Dependencies: Point.java
+ *
+ *  An immutable sequence of points stored as two int arrays, so the
+ *  collinear searches read coordinates from contiguous memory instead
+ *  of dereferencing a Point per access. A view of a range shares the
+ *  arrays of the sequence it comes from.
+ *
+ ******************************************************************************/
+
+import java.util.Arrays;
+
+public class PointArray {
+    private final int[] xs;     // x-coordinates, shared by views
+    private final int[] ys;     // y-coordinates, shared by views
+    private final int offset;   // index in xs and ys of point 0
+    private final int length;   // number of points
+
+    /**
+     * Initializes a sequence with the coordinates of the given points.
+     *
+     * @param  points the points
+     * @throws IllegalArgumentException if points or any point is null
+     */
+    public PointArray(Point[] points) {
+        if (points == null)
+            throw new IllegalArgumentException("argument is null");
+        length = points.length;
+        offset = 0;
+        xs = new int[length];
+        ys = new int[length];
+        for (int i = 0; i < length; ++i) {
+            if (points[i] == null)
+                throw new IllegalArgumentException("point is null");
+            xs[i] = points[i].x();
+            ys[i] = points[i].y();
+        }
+    }
+
+    /**
+     * Initializes a sequence with the points (xs[i], ys[i]).
+     *
+     * @param  xs the x-coordinates
+     * @param  ys the y-coordinates
+     * @throws IllegalArgumentException if either array is null or their
+     *         lengths differ
+     */
+    public PointArray(int[] xs, int[] ys) {
+        if (xs == null || ys == null || xs.length != ys.length)
+            throw new IllegalArgumentException("coordinate arrays must have equal length");
+        this.xs = xs.clone();
+        this.ys = ys.clone();
+        offset = 0;
+        length = xs.length;
+    }
+
+    // shares the coordinate arrays
+    private PointArray(int[] xs, int[] ys, int offset, int length) {
+        this.xs = xs;
+        this.ys = ys;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Returns the number of points.
+     *
+     * @return the number of points
+     */
+    public int size() {
+        return length;
+    }
+
+    /**
+     * Returns the x-coordinate of point i; i must be in [0, size()).
+     *
+     * @param  i the index of the point
+     * @return the x-coordinate of point i
+     */
+    public int x(int i) {
+        return xs[offset + i];
+    }
+
+    /**
+     * Returns the y-coordinate of point i; i must be in [0, size()).
+     *
+     * @param  i the index of the point
+     * @return the y-coordinate of point i
+     */
+    public int y(int i) {
+        return ys[offset + i];
+    }
+
+    /**
+     * Returns point i as a new {@code Point}.
+     *
+     * @param  i the index of the point
+     * @return point i
+     * @throws IllegalArgumentException unless {@code 0 <= i < size()}
+     */
+    public Point point(int i) {
+        validate(i);
+        return new Point(xs[offset + i], ys[offset + i]);
+    }
+
+    /**
+     * Compares points i and j as {@link Point#compareTo(Point)} does: by
+     * y-coordinate, breaking ties by x-coordinate.
+     *
+     * @param  i the index of one point
+     * @param  j the index of the other point
+     * @return a negative integer, zero, or a positive integer as point i is
+     *         less than, equal to, or greater than point j
+     */
+    public int compare(int i, int j) {
+        int c = Integer.compare(ys[offset + i], ys[offset + j]);
+        if (c != 0)     return c;
+        return Integer.compare(xs[offset + i], xs[offset + j]);
+    }
+
+    /**
+     * Returns the points [from, to) as a sequence sharing this one's storage.
+     *
+     * @param  from the index of the first point
+     * @param  to one past the index of the last point
+     * @return the points [from, to)
+     * @throws IllegalArgumentException unless
+     *         {@code 0 <= from <= to <= size()}
+     */
+    public PointArray view(int from, int to) {
+        if (from < 0 || from > to || to > length)
+            throw new IllegalArgumentException("view [" + from + ", " + to + ") out of bounds");
+        return new PointArray(xs, ys, offset + from, to - from);
+    }
+
+    /**
+     * Returns a new sequence of these points in {@code compareTo} order.
+     * Each point is packed into one long that orders like compareTo, so
+     * the sort is a primitive sort.
+     *
+     * @return these points sorted by y-coordinate, then x-coordinate
+     */
+    public PointArray sorted() {
+        long[] keys = new long[length];
+        for (int i = 0; i < length; ++i) {
+            int x = xs[offset + i];
+            int y = ys[offset + i];
+            // y signed in the high half; x biased to unsigned in the low half
+            keys[i] = ((long) y << 32) | ((x ^ Integer.MIN_VALUE) & 0xffffffffL);
+        }
+        Arrays.sort(keys);
+
+        int[] sxs = new int[length];
+        int[] sys = new int[length];
+        for (int i = 0; i < length; ++i) {
+            sys[i] = (int) (keys[i] >> 32);
+            sxs[i] = (int) keys[i] ^ Integer.MIN_VALUE;
+        }
+        return new PointArray(sxs, sys, 0, length);
+    }
+
+    /**
+     * Returns these points as new {@code Point} objects.
+     *
+     * @return these points as an array
+     */
+    public Point[] toPoints() {
+        Point[] points = new Point[length];
+        for (int i = 0; i < length; ++i)
+            points[i] = new Point(xs[offset + i], ys[offset + i]);
+        return points;
+    }
+
+    private void validate(int i) {
+        if (i < 0 || i >= length)
+            throw new IllegalArgumentException("index " + i + " out of bounds");
+    }
+}
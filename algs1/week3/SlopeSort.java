@@ -0,0 +1,167 @@
+/******************************************************************************
+ *  Compilation:  javac SlopeSort.java
+ *  Execution:    none
+ *  Dependencies: PointArray.java
+ *
+ *  Sorts points by the slope they make with an origin. Each point gets
+ *  one primitive key, its slope as a double with the bits rearranged so
+ *  that unsigned order is numeric order, and the keys are LSD radix
+ *  sorted a byte at a time together with the points' indices. Passes
+ *  whose byte is the same for every key are skipped, and the buffers are
+ *  reused from one sort to the next.
+ *
+ ******************************************************************************/
+
+import java.util.Arrays;
+
+public class SlopeSort {
+    private static final int R = 256;   // radix, one byte per pass
+
+    private long[] keys;
+    private int[] index;
+    private long[] keyAux;
+    private int[] indexAux;
+    private final int[][] count = new int[8][R];
+    private int n;
+
+    /**
+     * Initializes the buffers for sorting up to the given number of points;
+     * they grow if more are sorted.
+     *
+     * @param  capacity the expected number of points per sort
+     */
+    public SlopeSort(int capacity) {
+        keys = new long[capacity];
+        index = new int[capacity];
+        keyAux = new long[capacity];
+        indexAux = new int[capacity];
+    }
+
+    // sort key of the slope dy / dx, defined as in Point.slopeTo() but
+    // from long differences, which cannot overflow: keys compare as
+    // unsigned longs in slope order, and two points have the same key iff
+    // their double slopes are equal. Equal slopes give equal keys, but
+    // near the int limits two different slopes can round to one double.
+    private static long key(long dy, long dx) {
+        double slope;
+        if (dx == 0)        slope = dy == 0 ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        else if (dy == 0)   slope = +0.0;
+        else                slope = (double) dy / dx;
+        long bits = Double.doubleToRawLongBits(slope);
+        // negatives: flip all bits; positives: flip the sign bit
+        return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+    }
+
+    /**
+     * Sorts all the points by slope with point origin of the same
+     * sequence, stably. The origin sorts first.
+     *
+     * @param points the points
+     * @param origin the index of the origin in points
+     */
+    public void sort(PointArray points, int origin) {
+        reserve(points.size());
+        long x0 = points.x(origin);
+        long y0 = points.y(origin);
+        for (int i = 0; i < n; ++i) {
+            keys[i] = key(points.y(i) - y0, points.x(i) - x0);
+            index[i] = i;
+        }
+        radixSort();
+    }
+
+    // makes room for size keys
+    private void reserve(int size) {
+        n = size;
+        if (keys.length < n) {
+            keys = new long[n];
+            index = new int[n];
+            keyAux = new long[n];
+            indexAux = new int[n];
+        }
+    }
+
+    // stable LSD sort of keys[0, n) carrying index along
+    private void radixSort() {
+        for (int d = 0; d < 8; ++d)
+            Arrays.fill(count[d], 0);
+        // all eight byte histograms in one pass
+        for (int i = 0; i < n; ++i) {
+            long k = keys[i];
+            for (int d = 0; d < 8; ++d)
+                ++count[d][(int) (k >>> (8 * d)) & 0xff];
+        }
+
+        for (int d = 0; d < 8; ++d) {
+            int[] c = count[d];
+            if (n == 0 || c[(int) (keys[0] >>> (8 * d)) & 0xff] == n)
+                continue;   // same byte everywhere, order already right
+
+            // counts to starting positions
+            int start = 0;
+            for (int r = 0; r < R; ++r) {
+                int t = c[r];
+                c[r] = start;
+                start += t;
+            }
+            for (int i = 0; i < n; ++i) {
+                int r = (int) (keys[i] >>> (8 * d)) & 0xff;
+                int pos = c[r]++;
+                keyAux[pos] = keys[i];
+                indexAux[pos] = index[i];
+            }
+            long[] tk = keys;
+            keys = keyAux;
+            keyAux = tk;
+            int[] ti = index;
+            index = indexAux;
+            indexAux = ti;
+        }
+    }
+
+    /**
+     * Returns the number of points in the last sort.
+     *
+     * @return the number of points in the last sort
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Returns the index into the last sorted points of the i-th point in
+     * slope order.
+     *
+     * @param  i the rank in slope order
+     * @return the index of the i-th point in slope order
+     */
+    public int index(int i) {
+        return index[i];
+    }
+
+    /**
+     * Returns the key of the i-th point in slope order.
+     *
+     * @param  i the rank in slope order
+     * @return the key of the i-th point in slope order
+     */
+    public long key(int i) {
+        return keys[i];
+    }
+
+    /**
+     * Returns one past the last rank whose slope equals that of rank i,
+     * so ranks [i, runEnd(i)) are the points on one line through the
+     * origin.
+     *
+     * @param  i the rank in slope order
+     * @return one past the last rank with the same slope as rank i
+     */
+    public int runEnd(int i) {
+        long k = keys[i];
+        int j = i +1;
+        while (j < n && keys[j] == k)
+            ++j;
+        return j;
+    }
+}